@@ -0,0 +1,42 @@
+package com.yourcompany.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Точка входа benchmarks.jar. Принимает обычные аргументы JMH (фильтр бенчмарков, -f, -wi, -i и т.д.),
+ * но всегда включает GC-профайлер (gc.alloc.rate.norm — байт на операцию) и сохраняет результаты в JSON:
+ * по умолчанию в jmh-results/jmh-&lt;время запуска&gt;.json, либо в файл из -rff.
+ */
+public final class BenchmarkRunner {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Path result = Path.of("jmh-results", "jmh-" + LocalDateTime.now().format(RUN_ID) + ".json");
+            Files.createDirectories(result.getParent());
+            options.result(result.toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
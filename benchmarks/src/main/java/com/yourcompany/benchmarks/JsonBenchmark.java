@@ -0,0 +1,91 @@
+package com.yourcompany.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.notificationservice.config.AppConfig;
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.StockEvent;
+import com.yourcompany.producttracker.dto.LowStockEventDto;
+import com.yourcompany.producttracker.dto.ProductResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON событий Kafka: сериализация в product-service (product-changes, low-stock-notifications)
+ * и разбор тех же сообщений в notification-service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    // product-service использует ObjectMapper автоконфигурации Spring Boot, которая строит его этим же билдером
+    private ObjectMapper producerMapper;
+    private ObjectMapper consumerMapper;
+    private ProductResponseDto product;
+    private LowStockEventDto lowStockEvent;
+    private String productJson;
+    private String lowStockEventJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        producerMapper = Jackson2ObjectMapperBuilder.json().build();
+        consumerMapper = new AppConfig().objectMapper();
+
+        product = new ProductResponseDto();
+        product.setId(42L);
+        product.setNameEn("Milk 3.2%");
+        product.setNameRu("Молоко 3,2%");
+        product.setCharacteristics("Пастеризованное, 930 мл");
+        product.setWeight(0.93);
+        product.setSize("7x7x20");
+        product.setExpiryDate(LocalDate.of(2026, 3, 1));
+        product.setStockQuantity(4);
+        product.setCategoryId(1L);
+        product.setCategoryName("Молочные продукты");
+        lowStockEvent = new LowStockEventDto(LowStockEventDto.Type.LOW_STOCK, 10, product);
+
+        productJson = producerMapper.writeValueAsString(product);
+        lowStockEventJson = producerMapper.writeValueAsString(lowStockEvent);
+    }
+
+    @Benchmark
+    public String serializeProduct() throws JsonProcessingException {
+        return producerMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public String serializeLowStockEvent() throws JsonProcessingException {
+        return producerMapper.writeValueAsString(lowStockEvent);
+    }
+
+    @Benchmark
+    public ProductResponseDto deserializeProductResponse() throws JsonProcessingException {
+        return producerMapper.readValue(productJson, ProductResponseDto.class);
+    }
+
+    @Benchmark
+    public Product deserializeNotificationProduct() throws JsonProcessingException {
+        return consumerMapper.readValue(productJson, Product.class);
+    }
+
+    @Benchmark
+    public StockEvent deserializeStockEvent() throws JsonProcessingException {
+        return consumerMapper.readValue(lowStockEventJson, StockEvent.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.yourcompany.benchmarks;
+
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.StockEvent;
+import com.yourcompany.notificationservice.service.NotificationRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Текст уведомлений notification-service (NotificationRenderer): одиночное сообщение и дайджесты на пакет событий.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationRenderingBenchmark {
+
+    // Размер пакета: max-poll-records=500 — верхняя граница
+    @Param({"10", "500"})
+    private int batchSize;
+
+    private NotificationRenderer renderer;
+    private StockEvent singleEvent;
+    private List<StockEvent> events;
+    private Map<LocalDate, Map<Long, Product>> productsByDay;
+    private Map<LocalDate, Integer> daysLeft;
+
+    @Setup
+    public void setUp() {
+        renderer = new NotificationRenderer();
+        LocalDate today = LocalDate.of(2026, 3, 1);
+        events = new ArrayList<>(batchSize);
+        productsByDay = new TreeMap<>();
+        daysLeft = new TreeMap<>();
+        for (int i = 0; i < batchSize; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setNameEn("Product " + i);
+            product.setNameRu("Товар " + i);
+            product.setStockQuantity(i % 10);
+            StockEvent event = new StockEvent();
+            event.setEventType(i % 4 == 0 ? StockEvent.Type.STOCK_RESTORED : StockEvent.Type.LOW_STOCK);
+            event.setThreshold(10);
+            event.setProduct(product);
+            events.add(event);
+
+            LocalDate day = today.plusDays(i % 7 + 1);
+            productsByDay.computeIfAbsent(day, d -> new LinkedHashMap<>()).put(product.getId(), product);
+            daysLeft.put(day, i % 7 + 1);
+        }
+        singleEvent = events.get(1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String formatSingle() {
+        return renderer.formatSingle(singleEvent);
+    }
+
+    @Benchmark
+    public List<String> buildLowStockDigests() {
+        return renderer.buildDigests(events);
+    }
+
+    @Benchmark
+    public List<String> buildExpiryDigests() {
+        return renderer.buildExpiryDigests(productsByDay, daysLeft);
+    }
+}
@@ -0,0 +1,97 @@
+package com.yourcompany.benchmarks;
+
+import com.yourcompany.producttracker.dto.ProductRequestDto;
+import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.model.Category;
+import com.yourcompany.producttracker.model.Product;
+import com.yourcompany.producttracker.repository.ProductView;
+import com.yourcompany.producttracker.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования ProductService между сущностью, проекцией и DTO — выполняются для каждого продукта
+ * в ответах API, событиях outbox и массовом импорте.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private ProductService productService;
+    private Product product;
+    private ProductView view;
+    private ProductRequestDto request;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        // Репозитории, outbox и кэш в преобразованиях не используются
+        productService = new ProductService(null, null, null, null, null, null);
+        category = new Category(1L, "Молочные продукты", "Молоко, сыр, йогурты");
+
+        product = new Product();
+        product.setId(42L);
+        product.setNameEn("Milk 3.2%");
+        product.setNameRu("Молоко 3,2%");
+        product.setCharacteristics("Пастеризованное, 930 мл");
+        product.setWeight(0.93);
+        product.setSize("7x7x20");
+        product.setExpiryDate(LocalDate.of(2026, 3, 1));
+        product.setStockQuantity(120);
+        product.setCategory(category);
+
+        request = new ProductRequestDto();
+        request.setNameEn(product.getNameEn());
+        request.setNameRu(product.getNameRu());
+        request.setCharacteristics(product.getCharacteristics());
+        request.setWeight(product.getWeight());
+        request.setSize(product.getSize());
+        request.setExpiryDate(product.getExpiryDate());
+        request.setStockQuantity(product.getStockQuantity());
+        request.setCategoryId(category.getId());
+
+        view = new ProductView() {
+            public Long getId() { return product.getId(); }
+            public String getNameEn() { return product.getNameEn(); }
+            public String getNameRu() { return product.getNameRu(); }
+            public String getCharacteristics() { return product.getCharacteristics(); }
+            public Double getWeight() { return product.getWeight(); }
+            public String getSize() { return product.getSize(); }
+            public LocalDate getExpiryDate() { return product.getExpiryDate(); }
+            public Integer getStockQuantity() { return product.getStockQuantity(); }
+            public Integer getLowStockThreshold() { return null; }
+            public Long getCategoryId() { return category.getId(); }
+            public String getCategoryName() { return category.getName(); }
+        };
+    }
+
+    @Benchmark
+    public ProductResponseDto entityToDto() {
+        return productService.toDto(product);
+    }
+
+    @Benchmark
+    public ProductResponseDto viewToDto() {
+        return productService.toDto(view);
+    }
+
+    @Benchmark
+    public Product requestToEntity() {
+        return productService.toEntity(request, category);
+    }
+}
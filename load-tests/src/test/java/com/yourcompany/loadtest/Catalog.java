@@ -0,0 +1,99 @@
+package com.yourcompany.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Каталог стенда: категории и продукты, созданные через API product-service перед прогоном.
+ * Остатки начинаются чуть выше порога, чтобы изменения остатка пересекали его и порождали уведомления.
+ */
+record Catalog(List<Long> categoryIds, List<Long> productIds) {
+
+    static final int LOW_STOCK_THRESHOLD = 10;
+
+    private static final int PAGE_SIZE = 500;
+
+    static Catalog seed(HttpClient httpClient, ObjectMapper objectMapper, URI productService,
+                        int categories, int products) throws IOException, InterruptedException {
+        List<Long> categoryIds = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            ObjectNode category = objectMapper.createObjectNode()
+                    .put("name", "Load category " + i)
+                    .put("description", "Load test")
+                    .put("lowStockThreshold", LOW_STOCK_THRESHOLD);
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(productService.resolve("/api/categories"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(category)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            expectStatus(response, 201);
+            categoryIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+
+        HttpResponse<String> imported = httpClient.send(
+                importRequest(productService, importBody(objectMapper, categoryIds, new SplittableRandom(42), products)),
+                HttpResponse.BodyHandlers.ofString());
+        expectStatus(imported, 200);
+
+        return new Catalog(List.copyOf(categoryIds), List.copyOf(loadProductIds(httpClient, objectMapper, productService)));
+    }
+
+    static HttpRequest importRequest(URI productService, String ndjson) {
+        return HttpRequest.newBuilder(productService.resolve("/api/products/import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))
+                .build();
+    }
+
+    /** NDJSON для POST /api/products/import: rows строк с разными категориями и остатками. */
+    static String importBody(ObjectMapper objectMapper, List<Long> categoryIds, SplittableRandom random, int rows)
+            throws IOException {
+        StringBuilder body = new StringBuilder(rows * 160);
+        for (int i = 0; i < rows; i++) {
+            long suffix = random.nextLong(1_000_000_000L);
+            ObjectNode product = objectMapper.createObjectNode()
+                    .put("nameEn", "Load product " + suffix)
+                    .put("nameRu", "Нагрузочный товар " + suffix)
+                    .put("characteristics", "Load test")
+                    .put("stockQuantity", LOW_STOCK_THRESHOLD + 1 + random.nextInt(10))
+                    .put("categoryId", categoryIds.get(random.nextInt(categoryIds.size())));
+            body.append(objectMapper.writeValueAsString(product)).append('\n');
+        }
+        return body.toString();
+    }
+
+    private static List<Long> loadProductIds(HttpClient httpClient, ObjectMapper objectMapper, URI productService)
+            throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        Long after = null;
+        do {
+            String query = "/api/products/page?size=" + PAGE_SIZE + (after != null ? "&after=" + after : "");
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(productService.resolve(query)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            expectStatus(response, 200);
+            JsonNode page = objectMapper.readTree(response.body());
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            after = page.hasNonNull("nextCursor") ? page.get("nextCursor").asLong() : null;
+        } while (after != null);
+        return ids;
+    }
+
+    private static void expectStatus(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Seeding failed: " + response.request().method() + " "
+                    + response.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
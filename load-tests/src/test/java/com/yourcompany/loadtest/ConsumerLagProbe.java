@@ -0,0 +1,108 @@
+package com.yourcompany.loadtest;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Отставание группы консьюмеров по топику: сумма (конец партиции − зафиксированный offset) по всем партициям.
+ * Во время прогона замеряется раз в секунду, запоминается максимум.
+ */
+final class ConsumerLagProbe implements AutoCloseable {
+
+    private static final long ADMIN_TIMEOUT_SECONDS = 5;
+
+    private final AdminClient adminClient;
+    private final String groupId;
+    private final String topic;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    ConsumerLagProbe(String bootstrapServers, String groupId, String topic) {
+        this.adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        this.groupId = groupId;
+        this.topic = topic;
+        scheduler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /** Максимум с прошлого вызова; счётчик сбрасывается — каждый сценарий получает свой максимум. */
+    long takeMaxLag() {
+        sample();
+        return maxLag.getAndSet(0);
+    }
+
+    /**
+     * Ждёт, пока группа не догонит топик.
+     *
+     * @return время до нулевого отставания в миллисекундах или -1, если не уложились в timeout
+     */
+    long awaitDrained(Duration timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (currentLag() == 0) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                // Брокер занят; повторим
+            }
+            Thread.sleep(200);
+        }
+        return -1;
+    }
+
+    long currentLag() throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata()
+                .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        TopicDescription description = adminClient.describeTopics(List.of(topic))
+                .allTopicNames()
+                .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .get(topic);
+        Map<TopicPartition, OffsetSpec> latest = description.partitions().stream()
+                .collect(Collectors.toMap(partition -> new TopicPartition(topic, partition.partition()),
+                        partition -> OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+                .all()
+                .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            lag += entry.getValue().offset() - (offset != null ? offset.offset() : 0);
+        }
+        return lag;
+    }
+
+    private void sample() {
+        try {
+            long lag = currentLag();
+            maxLag.accumulateAndGet(lag, Math::max);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Пропущенный замер не искажает максимум
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        adminClient.close(Duration.ofSeconds(ADMIN_TIMEOUT_SECONDS));
+    }
+}
@@ -0,0 +1,90 @@
+package com.yourcompany.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Заглушка Telegram Bot API для notification-service: принимает sendMessage и считает отправленные сообщения,
+ * на getUpdates отвечает пустым списком с задержкой (как long polling без входящих сообщений).
+ */
+final class FakeTelegramServer implements AutoCloseable {
+
+    static final String TOKEN = "load-test-token";
+
+    private static final long LONG_POLL_MILLIS = 1000;
+    private static final String EMPTY_UPDATES = "{\"ok\":true,\"result\":[]}";
+    private static final String SENT_MESSAGE =
+            "{\"ok\":true,\"result\":{\"message_id\":1,\"date\":0,\"chat\":{\"id\":1,\"type\":\"private\"}}}";
+    private static final String OK = "{\"ok\":true,\"result\":true}";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final AtomicLong sentMessages = new AtomicLong();
+
+    FakeTelegramServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/bot" + TOKEN + "/", this::handle);
+        server.start();
+    }
+
+    /** Значение telegram.bot.api-url: библиотека дописывает к нему токен и имя метода. */
+    String apiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/bot";
+    }
+
+    long sentMessages() {
+        return sentMessages.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        String path = exchange.getRequestURI().getPath();
+        // Библиотека пишет имена методов в нижнем регистре (getupdates, sendmessage)
+        String method = path.substring(path.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        String response = switch (method) {
+            case "getupdates" -> {
+                pause();
+                yield EMPTY_UPDATES;
+            }
+            case "sendmessage" -> {
+                sentMessages.incrementAndGet();
+                yield SENT_MESSAGE;
+            }
+            default -> OK;
+        };
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(LONG_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
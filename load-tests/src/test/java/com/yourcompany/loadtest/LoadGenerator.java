@@ -0,0 +1,144 @@
+package com.yourcompany.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.loadtest.TrafficMix.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Закрытая модель нагрузки: concurrency клиентов, каждый отправляет следующий запрос сразу после ответа на
+ * предыдущий. Задержки пишутся в HdrHistogram (микросекунды) только после прогрева.
+ * В закрытой модели медленный ответ откладывает следующие запросы (coordinated omission), поэтому
+ * задержки сравниваются только с базовыми значениями той же модели, а не с SLO.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int MAX_STOCK_DELTA = 3;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI productService;
+    private final Catalog catalog;
+
+    LoadGenerator(HttpClient httpClient, ObjectMapper objectMapper, URI productService, Catalog catalog) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.catalog = catalog;
+    }
+
+    Result run(TrafficMix mix) throws InterruptedException {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operation, new AtomicLong());
+        }
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(mix.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(mix.durationSeconds());
+        ExecutorService workers = Executors.newFixedThreadPool(mix.concurrency());
+        try {
+            List<Future<?>> futures = new ArrayList<>(mix.concurrency());
+            for (int i = 0; i < mix.concurrency(); i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                        Operation operation = mix.pick(random);
+                        long start = System.nanoTime();
+                        boolean succeeded = execute(operation, mix, random);
+                        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        if (start >= measureFrom) {
+                            histograms.get(operation).recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+                            if (!succeeded) {
+                                errors.get(operation).incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.get()));
+        return new Result(histograms, errorCounts, mix.durationSeconds());
+    }
+
+    /**
+     * @return false, если ответ не тот, что ожидается от работающего сервиса. 409 на списание — нормальный
+     * исход (остатка не хватило), а не ошибка.
+     */
+    private boolean execute(Operation operation, TrafficMix mix, SplittableRandom random) {
+        try {
+            return switch (operation) {
+                case READ_BY_ID -> send(get("/api/products/" + randomProductId(random))) == 200;
+                case CATEGORY_LISTING -> send(get("/api/products/category/" + randomCategoryId(random))) == 200;
+                case STOCK_UPDATE -> {
+                    long productId = randomProductId(random);
+                    int delta = random.nextInt(1, MAX_STOCK_DELTA + 1) * (random.nextBoolean() ? 1 : -1);
+                    String body = objectMapper.createObjectNode()
+                            .put("productId", productId)
+                            .put("delta", delta)
+                            .toString();
+                    int status = send(HttpRequest.newBuilder(productService.resolve("/api/products/" + productId + "/stock"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build());
+                    yield status == 200 || status == 409;
+                }
+                case BULK_IMPORT -> send(Catalog.importRequest(productService,
+                        Catalog.importBody(objectMapper, catalog.categoryIds(), random, mix.importBatchSize()))) == 200;
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(productService.resolve(path)).GET().build();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long randomProductId(SplittableRandom random) {
+        return catalog.productIds().get(random.nextInt(catalog.productIds().size()));
+    }
+
+    private long randomCategoryId(SplittableRandom random) {
+        return catalog.categoryIds().get(random.nextInt(catalog.categoryIds().size()));
+    }
+
+    record Result(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, int durationSeconds) {
+    }
+}
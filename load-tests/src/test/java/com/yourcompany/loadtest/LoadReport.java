@@ -0,0 +1,130 @@
+package com.yourcompany.loadtest;
+
+import com.yourcompany.loadtest.TrafficMix.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Итог сценария. Хранится в target/load-test/&lt;mix&gt;.json; тот же формат используется для базовых
+ * значений в src/test/resources/baselines.
+ */
+record LoadReport(String mix,
+                  int concurrency,
+                  int durationSeconds,
+                  OperationStats overall,
+                  Map<Operation, OperationStats> operations,
+                  long maxConsumerLag,
+                  long lagDrainMillis,
+                  long telegramMessages) {
+
+    // Отставание в единицы сообщений — шум; допуск по нему считается от max(базовое значение, LAG_FLOOR)
+    private static final long LAG_FLOOR = 100;
+
+    record OperationStats(long requests,
+                          long errors,
+                          double throughputPerSecond,
+                          double p50Millis,
+                          double p99Millis,
+                          double p999Millis,
+                          double maxMillis) {
+
+        static OperationStats of(Histogram histogram, long errors, int durationSeconds) {
+            return new OperationStats(histogram.getTotalCount(), errors,
+                    (double) histogram.getTotalCount() / durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadReport of(TrafficMix mix, LoadGenerator.Result result, long maxConsumerLag, long lagDrainMillis,
+                         long telegramMessages) {
+        Histogram total = new Histogram(result.histograms().get(Operation.READ_BY_ID).getHighestTrackableValue(),
+                result.histograms().get(Operation.READ_BY_ID).getNumberOfSignificantValueDigits());
+        long totalErrors = 0;
+        Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, Histogram> entry : result.histograms().entrySet()) {
+            long errors = result.errors().get(entry.getKey());
+            if (entry.getValue().getTotalCount() > 0) {
+                operations.put(entry.getKey(), OperationStats.of(entry.getValue(), errors, result.durationSeconds()));
+            }
+            total.add(entry.getValue());
+            totalErrors += errors;
+        }
+        return new LoadReport(mix.name(), mix.concurrency(), result.durationSeconds(),
+                OperationStats.of(total, totalErrors, result.durationSeconds()), operations,
+                maxConsumerLag, lagDrainMillis, telegramMessages);
+    }
+
+    /**
+     * Отличия от базового прогона хуже допуска: пропускная способность ниже (1 − tolerance) от базовой,
+     * перцентили и отставание консьюмера выше (1 + tolerance). Ошибки и незавершённая обработка очереди
+     * считаются регрессией всегда.
+     */
+    List<String> regressionsAgainst(LoadReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (overall.errors() > 0) {
+            regressions.add(overall.errors() + " failed requests");
+        }
+        if (lagDrainMillis < 0) {
+            regressions.add("notification consumer lag did not drain after the run");
+        }
+        checkAtLeast(regressions, "overall throughput/s", overall.throughputPerSecond(),
+                baseline.overall().throughputPerSecond(), tolerance);
+        checkAtMost(regressions, "overall p50 ms", overall.p50Millis(), baseline.overall().p50Millis(), tolerance);
+        checkAtMost(regressions, "overall p99 ms", overall.p99Millis(), baseline.overall().p99Millis(), tolerance);
+        checkAtMost(regressions, "overall p99.9 ms", overall.p999Millis(), baseline.overall().p999Millis(), tolerance);
+        for (Map.Entry<Operation, OperationStats> entry : baseline.operations().entrySet()) {
+            OperationStats current = operations.get(entry.getKey());
+            if (current != null) {
+                checkAtMost(regressions, entry.getKey() + " p99 ms", current.p99Millis(), entry.getValue().p99Millis(),
+                        tolerance);
+            }
+        }
+        checkAtMost(regressions, "max consumer lag", maxConsumerLag, Math.max(baseline.maxConsumerLag(), LAG_FLOOR),
+                tolerance);
+        return regressions;
+    }
+
+    String summary() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %d clients, %d s, consumer lag max %d, drained in %d ms, telegram messages %d%n",
+                mix, concurrency, durationSeconds, maxConsumerLag, lagDrainMillis, telegramMessages));
+        text.append(String.format(Locale.ROOT, "  %-16s %9s %7s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms"));
+        operations.forEach((operation, stats) -> text.append(row(operation.name(), stats)));
+        text.append(row("TOTAL", overall));
+        return text.toString();
+    }
+
+    private static String row(String name, OperationStats stats) {
+        return String.format(Locale.ROOT, "  %-16s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", name, stats.requests(),
+                stats.errors(), stats.throughputPerSecond(), stats.p50Millis(), stats.p99Millis(), stats.p999Millis());
+    }
+
+    private static void checkAtLeast(List<String> regressions, String metric, double actual, double baseline,
+                                     double tolerance) {
+        double limit = baseline * (1 - tolerance);
+        if (actual < limit) {
+            regressions.add(String.format(Locale.ROOT, "%s %.2f < %.2f (baseline %.2f)", metric, actual, limit, baseline));
+        }
+    }
+
+    private static void checkAtMost(List<String> regressions, String metric, double actual, double baseline,
+                                    double tolerance) {
+        double limit = baseline * (1 + tolerance);
+        if (actual > limit) {
+            regressions.add(String.format(Locale.ROOT, "%s %.2f > %.2f (baseline %.2f)", metric, actual, limit, baseline));
+        }
+    }
+}
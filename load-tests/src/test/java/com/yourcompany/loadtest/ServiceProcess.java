@@ -0,0 +1,85 @@
+package com.yourcompany.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис, запущенный из исполняемого jar отдельным процессом JVM. Вывод процесса пишется в &lt;name&gt;.log
+ * рядом с отчётами, чтобы при падении стенда было что смотреть.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    // Фиксированная куча — чтобы результаты прогонов были сравнимы между машинами с разным объёмом памяти
+    private static final List<String> JVM_ARGS = List.of("-Xms512m", "-Xmx512m");
+
+    private final String name;
+    private final Process process;
+    private final Path log;
+
+    private ServiceProcess(String name, Process process, Path log) {
+        this.name = name;
+        this.process = process;
+        this.log = log;
+    }
+
+    static ServiceProcess start(String name, Path jar, Path logDir, List<String> args) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Executable jar of " + name + " not found: " + jar
+                    + " (build with -am so that the service modules are packaged first)");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(JVM_ARGS);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        Path log = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServiceProcess(name, process, log);
+    }
+
+    /**
+     * Ждёт, пока probe не ответит 200. Падает сразу, если процесс завершился (например, не прошла миграция).
+     */
+    void awaitReady(HttpClient httpClient, URI probe, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(probe).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Порт ещё не слушается
+            } catch (IOException e) {
+                // Контекст поднимается, пробуем ещё раз
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become ready within " + timeout + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
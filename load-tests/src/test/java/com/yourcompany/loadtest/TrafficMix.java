@@ -0,0 +1,51 @@
+package com.yourcompany.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Сценарий нагрузки из src/test/resources/mixes/&lt;name&gt;.json: длительность прогрева и замера,
+ * число параллельных клиентов и веса операций.
+ */
+record TrafficMix(String name,
+                  int warmupSeconds,
+                  int durationSeconds,
+                  int concurrency,
+                  int importBatchSize,
+                  Map<Operation, Integer> weights) {
+
+    enum Operation {
+        /** GET /api/products/{id} */
+        READ_BY_ID,
+        /** GET /api/products/category/{categoryId} */
+        CATEGORY_LISTING,
+        /** POST /api/products/{id}/stock */
+        STOCK_UPDATE,
+        /** POST /api/products/import (NDJSON) */
+        BULK_IMPORT
+    }
+
+    TrafficMix {
+        if (concurrency <= 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Invalid timing or concurrency in mix " + name);
+        }
+        weights = new EnumMap<>(weights);
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix " + name + " has no operations with positive weight");
+        }
+    }
+
+    /** Случайная операция с вероятностью, пропорциональной её весу. */
+    Operation pick(SplittableRandom random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int point = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable: weights changed during pick");
+    }
+}
@@ -0,0 +1,60 @@
+package com.yourcompany.notificationservice.client;
+
+/**
+ * Простой автомат защиты: после failureThreshold ошибок подряд вызовы отклоняются сразу,
+ * через openNanos пропускается один пробный вызов, и по его исходу цепь закрывается или снова размыкается.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * @param nowNanos Текущее время (System.nanoTime()).
+     * @return true, если вызов можно выполнять; каждый разрешённый вызов должен завершиться onSuccess или onFailure.
+     */
+    synchronized boolean tryAcquire(long nowNanos) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nowNanos - openedAtNanos < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            default:
+                // Пробный вызов ещё выполняется
+                return false;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure(long nowNanos) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = nowNanos;
+            consecutiveFailures = 0;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,147 @@
+package com.yourcompany.notificationservice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductPage;
+import com.yourcompany.notificationservice.dto.ProductSearchPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Неблокирующий клиент REST API product-service на JDK HttpClient.
+ * Соединения переиспользуются клиентом; у каждого запроса есть таймаут соединения и ответа.
+ * Число одновременных запросов ограничено (лишние отклоняются сразу, а не ждут),
+ * а после серии ошибок автомат защиты перестаёт обращаться к сервису на open-ms.
+ */
+@Component
+@Slf4j
+public class ProductServiceClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration readTimeout;
+    private final Semaphore inFlight;
+    private final CircuitBreaker circuitBreaker;
+
+    public ProductServiceClient(ObjectMapper objectMapper,
+                                @Value("${product.service.url}") String baseUrl,
+                                @Value("${product.service.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                @Value("${product.service.read-timeout-ms:5000}") long readTimeoutMs,
+                                @Value("${product.service.max-concurrent-requests:20}") int maxConcurrentRequests,
+                                @Value("${product.service.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                @Value("${product.service.circuit-breaker.open-ms:30000}") long openMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.inFlight = new Semaphore(maxConcurrentRequests);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs).toNanos());
+    }
+
+    /**
+     * @return Продукт или пусто, если product-service ответил 404.
+     */
+    public CompletableFuture<Optional<Product>> getProduct(long id) {
+        return get(URI.create(baseUrl + "/api/products/" + id), Product.class).thenApply(Optional::ofNullable);
+    }
+
+    public CompletableFuture<ProductPage> getProductsPage(Long after, Long before, int size) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/products/page")
+                .queryParam("size", size)
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParamIfPresent("before", Optional.ofNullable(before))
+                .build()
+                .toUri();
+        return get(uri, ProductPage.class);
+    }
+
+    public CompletableFuture<ProductSearchPage> searchProducts(String query, int size) {
+        // Запрос подставляется как переменная шаблона: так кодируются и зарезервированные символы
+        // (+ иначе сервер прочитал бы как пробел, & — как разделитель параметров)
+        URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/products/search")
+                .queryParam("q", "{q}")
+                .queryParam("size", size)
+                .encode()
+                .buildAndExpand(query)
+                .toUri();
+        return get(uri, ProductSearchPage.class);
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * GET с разбором JSON. 404 даёт null; ответы 5xx, таймауты и сетевые ошибки
+     * завершают future с ProductServiceUnavailableException и считаются ошибками автомата защиты.
+     */
+    private <T> CompletableFuture<T> get(URI uri, Class<T> type) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new ProductServiceUnavailableException("Too many concurrent requests to product-service"));
+        }
+        if (!circuitBreaker.tryAcquire(System.nanoTime())) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(
+                    new ProductServiceUnavailableException("Circuit breaker for product-service is open"));
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            circuitBreaker.onFailure(System.nanoTime());
+            return CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                circuitBreaker.onFailure(System.nanoTime());
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.warn("Request to product-service failed: {} {}", uri, cause.toString());
+                throw new CompletionException(new ProductServiceUnavailableException("Request to " + uri + " failed", cause));
+            }
+            int status = result.statusCode();
+            if (status >= 500) {
+                circuitBreaker.onFailure(System.nanoTime());
+                throw new CompletionException(new ProductServiceUnavailableException(
+                        "product-service responded " + status + " to " + uri));
+            }
+            // Сервис ответил — для автомата защиты это успех, даже если ответ 4xx
+            circuitBreaker.onSuccess();
+            if (status == 404) {
+                return null;
+            }
+            if (status >= 400) {
+                throw new CompletionException(new IllegalStateException("product-service responded " + status + " to " + uri));
+            }
+            try {
+                return objectMapper.readValue(result.body(), type);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.yourcompany.notificationservice.client;
+
+/**
+ * product-service не ответил, ответил ошибкой 5xx, или вызов отклонён без обращения к нему
+ * (разомкнут автомат защиты либо исчерпан лимит одновременных запросов).
+ */
+public class ProductServiceUnavailableException extends RuntimeException {
+
+    public ProductServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ProductServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,10 +3,11 @@ package com.yourcompany.notificationservice.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.yourcompany.notificationservice.telegram.TelegramBot;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.web.client.RestTemplate;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
@@ -22,9 +23,14 @@ public class AppConfig {
         return objectMapper;
     }
 
+    /**
+     * Адрес Bot API настраивается, чтобы нагрузочный стенд мог подставить свою заглушку Telegram.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public DefaultBotOptions botOptions(@Value("${telegram.bot.api-url:https://api.telegram.org/bot}") String apiUrl) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(apiUrl);
+        return options;
     }
 
     @Bean
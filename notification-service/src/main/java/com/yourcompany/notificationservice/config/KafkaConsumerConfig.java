@@ -0,0 +1,43 @@
+package com.yourcompany.notificationservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Фабрика контейнеров для пакетного чтения уведомлений.
+ * Каждый экземпляр запускает concurrency консьюмеров; суммарно по всем экземплярам их должно быть
+ * не больше числа партиций топика (лишние простаивают). Сообщения одного продукта идут по порядку,
+ * так как product-service публикует их с ключом — ID продукта.
+ * Offset'ы фиксируются только после успешной обработки всего пакета (AckMode.BATCH);
+ * если отправка дайджеста не удалась, пакет перечитывается с экспоненциальной задержкой.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
+
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            @Value("${notification.kafka.retry.initial-interval-ms:1000}") long initialIntervalMs,
+            @Value("${notification.kafka.retry.max-interval-ms:60000}") long maxIntervalMs,
+            @Value("${notification.kafka.concurrency:3}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, 2.0);
+        backOff.setMaxInterval(maxIntervalMs);
+        // Без ограничения по времени: пока Telegram недоступен, offset'ы не двигаются и уведомления не теряются
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
@@ -0,0 +1,30 @@
+package com.yourcompany.notificationservice.controller;
+
+import com.yourcompany.notificationservice.dto.SendQueueStatsDto;
+import com.yourcompany.notificationservice.telegram.TelegramSendQueue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/telegram")
+public class SendQueueController {
+
+    private final TelegramSendQueue sendQueue;
+
+    public SendQueueController(TelegramSendQueue sendQueue) {
+        this.sendQueue = sendQueue;
+    }
+
+    // Глубина очереди и счётчики отправки сообщений в Telegram
+    @GetMapping("/send-queue")
+    public SendQueueStatsDto getSendQueueStats() {
+        return new SendQueueStatsDto(
+                sendQueue.getQueueDepth(),
+                sendQueue.getCapacity(),
+                sendQueue.getSentCount(),
+                sendQueue.getFailedCount(),
+                sendQueue.getRejectedCount(),
+                sendQueue.getRetriedCount());
+    }
+}
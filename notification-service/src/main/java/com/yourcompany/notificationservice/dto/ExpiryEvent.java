@@ -0,0 +1,19 @@
+package com.yourcompany.notificationservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Событие из топика product-expiry-notifications: товары, вошедшие в окно истечения
+ * срока годности, с общим днём истечения.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExpiryEvent {
+    private LocalDate expiryDate;
+    private int daysLeft;
+    private List<Product> products;
+}
@@ -0,0 +1,17 @@
+package com.yourcompany.notificationservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница продуктов из product-service (GET /api/products/page).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductPage {
+    private List<Product> items;
+    private Long nextCursor;
+    private Long prevCursor;
+}
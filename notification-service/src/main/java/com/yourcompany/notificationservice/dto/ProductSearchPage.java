@@ -0,0 +1,18 @@
+package com.yourcompany.notificationservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска из product-service (GET /api/products/search).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSearchPage {
+    private List<Product> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,20 @@
+package com.yourcompany.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Состояние очереди исходящих сообщений Telegram.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SendQueueStatsDto {
+    private int queueDepth;
+    private int capacity;
+    private long sent;
+    private long failed;
+    private long rejected;
+    private long retried;
+}
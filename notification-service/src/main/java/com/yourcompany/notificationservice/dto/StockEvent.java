@@ -0,0 +1,27 @@
+package com.yourcompany.notificationservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Data;
+
+/**
+ * Событие смены состояния остатка из топика low-stock-notifications.
+ * Поля продукта лежат на верхнем уровне сообщения; сообщения без eventType
+ * (старый формат) считаются уведомлениями о низком остатке.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StockEvent {
+
+    public enum Type { LOW_STOCK, STOCK_RESTORED }
+
+    private Type eventType;
+    private Integer threshold;
+
+    @JsonUnwrapped
+    private Product product;
+
+    public boolean isRestored() {
+        return eventType == Type.STOCK_RESTORED;
+    }
+}
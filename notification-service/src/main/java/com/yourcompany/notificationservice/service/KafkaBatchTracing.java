@@ -0,0 +1,85 @@
+package com.yourcompany.notificationservice.service;
+
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Трассировка пакетных listener'ов. Observation spring-kafka поддерживает только поштучные listener'ы,
+ * поэтому span'ы строятся здесь: на каждую запись — span получения, продолжающий трейс из её заголовков,
+ * на каждый дайджест — span отправки. Дайджест объединяет несколько событий: его родитель — последнее событие,
+ * остальные связаны ссылками (links), так что из трейса любого события виден дайджест, в который оно попало.
+ */
+@Component
+public class KafkaBatchTracing {
+
+    // Ограничение числа ссылок на span дайджеста (пакет — до max-poll-records событий)
+    private static final int MAX_LINKS = 128;
+
+    private static final Propagator.Getter<Headers> HEADER_GETTER = (headers, key) -> {
+        Header header = headers.lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    };
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public KafkaBatchTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @return Начатый span получения записи или null, если запись пришла без контекста трассировки.
+     */
+    public Span startReceive(ConsumerRecord<?, ?> record) {
+        if (propagator.fields().stream().noneMatch(field -> record.headers().lastHeader(field) != null)) {
+            return null;
+        }
+        return propagator.extract(record.headers(), HEADER_GETTER)
+                .name(record.topic() + " receive")
+                .kind(Span.Kind.CONSUMER)
+                .tag("messaging.kafka.partition", String.valueOf(record.partition()))
+                .tag("messaging.kafka.offset", String.valueOf(record.offset()))
+                .start();
+    }
+
+    /**
+     * @param received Span'ы получения событий, попавших в дайджест, в порядке чтения; null пропускаются.
+     */
+    public Span startDigest(String kind, List<Span> received) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name(kind + " digest")
+                .kind(Span.Kind.PRODUCER);
+        Span parent = null;
+        int links = 0;
+        for (int i = received.size() - 1; i >= 0; i--) {
+            Span span = received.get(i);
+            if (span == null) {
+                continue;
+            }
+            if (parent == null) {
+                parent = span;
+                builder.setParent(span.context());
+            } else if (links++ < MAX_LINKS) {
+                builder.addLink(new Link(span));
+            }
+        }
+        if (parent == null) {
+            builder.setNoParent();
+        }
+        return builder.start();
+    }
+
+    public Tracer.SpanInScope inScope(Span span) {
+        return tracer.withSpan(span);
+    }
+}
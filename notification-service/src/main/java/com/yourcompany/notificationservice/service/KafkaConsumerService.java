@@ -2,47 +2,215 @@ package com.yourcompany.notificationservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.notificationservice.config.KafkaConsumerConfig;
+import com.yourcompany.notificationservice.dto.ExpiryEvent;
 import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.StockEvent;
 import com.yourcompany.notificationservice.telegram.TelegramBot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.objects.Message;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 public class KafkaConsumerService {
 
+    // Меньше max.poll.interval.ms (5 минут), чтобы ожидание очереди отправки не выбило консьюмера из группы
+    private static final Duration DIGEST_SEND_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String LOW_STOCK_TOPIC = "low-stock-notifications";
+    private static final String EXPIRY_TOPIC = "product-expiry-notifications";
+
     private final ObjectMapper objectMapper;
     private final TelegramBot telegramBot;
     private final String notificationChatId;
+    private final MeterRegistry meterRegistry;
+    private final KafkaBatchTracing batchTracing;
+    private final NotificationRenderer renderer;
 
+    /**
+     * Время обработки пакетов меряет сам контейнер Kafka (таймер spring.kafka.listener по id listener'а);
+     * здесь считаются только отброшенные сообщения и отправленные дайджесты.
+     */
     public KafkaConsumerService(ObjectMapper objectMapper,
                                 TelegramBot telegramBot,
-                                @Value("${notification.chat.id}") String notificationChatId) {
+                                @Value("${notification.chat.id}") String notificationChatId,
+                                MeterRegistry meterRegistry,
+                                KafkaBatchTracing batchTracing,
+                                NotificationRenderer renderer) {
         this.objectMapper = objectMapper;
         this.telegramBot = telegramBot;
         this.notificationChatId = notificationChatId;
+        this.meterRegistry = meterRegistry;
+        this.batchTracing = batchTracing;
+        this.renderer = renderer;
     }
 
-    @KafkaListener(topics = "low-stock-notifications", groupId = "${spring.kafka.consumer.group-id}")
+    /**
+     * Поштучная обработка: одно сообщение Kafka — одно сообщение в Telegram.
+     * Запускается, только если пакетный режим выключен (notification.kafka.batch.enabled=false).
+     */
+    @KafkaListener(id = "lowStockListener", topics = LOW_STOCK_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${notification.kafka.concurrency:3}",
+            autoStartup = "#{!${notification.kafka.batch.enabled:true}}")
     public void listenLowStock(String message) {
         log.info("Received message from Kafka: {}", message);
         try {
-            Product product = objectMapper.readValue(message, Product.class);
+            StockEvent event = objectMapper.readValue(message, StockEvent.class);
+            telegramBot.sendNotification(notificationChatId, renderer.formatSingle(event));
+        } catch (JsonProcessingException e) {
+            log.error("Error deserializing product from Kafka message", e);
+            countMalformed(LOW_STOCK_TOPIC);
+        }
+    }
 
-            String notificationText = String.format(
-                    "Внимание! Заканчивается товар:\n\nID: %d\nНазвание: %s / %s\nОстаток: %d шт.",
-                    product.getId(),
-                    product.getNameRu(),
-                    product.getNameEn(),
-                    product.getStockQuantity()
-            );
+    /**
+     * Пакетная обработка: все сообщения одного poll схлопываются по ID продукта
+     * (остаётся последнее состояние) и уходят одним или несколькими дайджестами.
+     * Дайджесты уходят через очередь отправки TelegramBot; listener ждёт их подтверждения.
+     * Если отправка не удалась, бросается исключение: offset'ы пакета не фиксируются,
+     * и пакет будет перечитан обработчиком ошибок контейнера.
+     */
+    @KafkaListener(id = "lowStockBatchListener", topics = LOW_STOCK_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY,
+            autoStartup = "${notification.kafka.batch.enabled:true}")
+    public void listenLowStockBatch(List<ConsumerRecord<String, String>> records) {
+        Map<Long, StockEvent> latestByProduct = new LinkedHashMap<>();
+        List<Span> received = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            String message = record.value();
+            Span receive = batchTracing.startReceive(record);
+            received.add(receive);
+            try {
+                StockEvent event = objectMapper.readValue(message, StockEvent.class);
+                if (event.getProduct() == null || event.getProduct().getId() == null) {
+                    log.warn("Skipping stock event without product id: {}", message);
+                    countMalformed(LOW_STOCK_TOPIC);
+                    continue;
+                }
+                // Удаляем и вставляем заново, чтобы порядок в дайджесте соответствовал последнему событию
+                latestByProduct.remove(event.getProduct().getId());
+                latestByProduct.put(event.getProduct().getId(), event);
+            } catch (JsonProcessingException e) {
+                log.error("Error deserializing product from Kafka message: {}", message, e);
+                countMalformed(LOW_STOCK_TOPIC);
+            } finally {
+                endIfStarted(receive);
+            }
+        }
+        if (latestByProduct.isEmpty()) {
+            return;
+        }
 
-            telegramBot.sendNotification(notificationChatId, notificationText);
+        List<String> digests = latestByProduct.size() == 1
+                ? List.of(renderer.formatSingle(latestByProduct.values().iterator().next()))
+                : renderer.buildDigests(latestByProduct.values());
+        log.info("Received {} stock events for {} products, sending {} message(s)",
+                records.size(), latestByProduct.size(), digests.size());
+        sendAndAwait(digests, "stock", received);
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Error deserializing product from Kafka message", e);
+    /**
+     * Уведомления об истечении срока годности: события пакета объединяются по дню истечения
+     * (товар, пришедший повторно, учитывается один раз) и уходят дайджестами, ближайшие сроки первыми.
+     * Как и для остатков, offset'ы фиксируются только после отправки.
+     */
+    @KafkaListener(id = "expiryBatchListener", topics = EXPIRY_TOPIC,
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY)
+    public void listenExpiryBatch(List<ConsumerRecord<String, String>> records) {
+        Map<LocalDate, Map<Long, Product>> productsByDay = new TreeMap<>();
+        Map<LocalDate, Integer> daysLeft = new TreeMap<>();
+        List<Span> received = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            String message = record.value();
+            Span receive = batchTracing.startReceive(record);
+            received.add(receive);
+            try {
+                ExpiryEvent event = objectMapper.readValue(message, ExpiryEvent.class);
+                if (event.getExpiryDate() == null || event.getProducts() == null) {
+                    log.warn("Skipping expiry event without date or products: {}", message);
+                    countMalformed(EXPIRY_TOPIC);
+                    continue;
+                }
+                Map<Long, Product> products = productsByDay.computeIfAbsent(event.getExpiryDate(), day -> new LinkedHashMap<>());
+                event.getProducts().forEach(product -> products.put(product.getId(), product));
+                daysLeft.put(event.getExpiryDate(), event.getDaysLeft());
+            } catch (JsonProcessingException e) {
+                log.error("Error deserializing expiry event from Kafka message: {}", message, e);
+                countMalformed(EXPIRY_TOPIC);
+            } finally {
+                endIfStarted(receive);
+            }
         }
+        if (productsByDay.isEmpty()) {
+            return;
+        }
+
+        List<String> digests = renderer.buildExpiryDigests(productsByDay, daysLeft);
+        log.info("Received {} expiry events for {} day(s), sending {} message(s)",
+                records.size(), productsByDay.size(), digests.size());
+        sendAndAwait(digests, "expiry", received);
+    }
+
+    private void sendAndAwait(List<String> digests, String kind, List<Span> received) {
+        Span span = batchTracing.startDigest(kind, received);
+        List<CompletableFuture<Message>> sent;
+        // Очередь отправки запоминает текущий контекст: вызовы Telegram попадают в трейс дайджеста
+        try (Tracer.SpanInScope scope = batchTracing.inScope(span)) {
+            sent = digests.stream()
+                    .map(digest -> telegramBot.sendNotification(notificationChatId, digest))
+                    .toList();
+        }
+        try {
+            // Дожидаемся отправки: offset'ы пакета фиксируются только после того, как Telegram принял дайджест
+            CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new))
+                    .get(DIGEST_SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Counter.builder("notification.digests.sent")
+                    .tag("kind", kind)
+                    .register(meterRegistry)
+                    .increment(digests.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            span.error(e);
+            throw new IllegalStateException("Interrupted while sending " + kind + " digest", e);
+        } catch (ExecutionException | TimeoutException e) {
+            span.error(e);
+            throw new IllegalStateException("Failed to send " + kind + " digest to chat " + notificationChatId, e);
+        } finally {
+            span.end();
+        }
+    }
+
+    private static void endIfStarted(Span span) {
+        if (span != null) {
+            span.end();
+        }
+    }
+
+    private void countMalformed(String topic) {
+        Counter.builder("notification.kafka.malformed")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
     }
 }
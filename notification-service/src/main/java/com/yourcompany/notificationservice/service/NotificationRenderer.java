@@ -0,0 +1,89 @@
+package com.yourcompany.notificationservice.service;
+
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.StockEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Текст уведомлений в Telegram: одиночное сообщение об остатке и дайджесты на пакет событий.
+ * Не зависит от Kafka и Telegram, поэтому используется и в бенчмарках.
+ */
+@Component
+public class NotificationRenderer {
+
+    // Лимит Telegram на длину одного сообщения
+    public static final int MAX_MESSAGE_LENGTH = 4096;
+
+    private static final String LOW_STOCK_HEADER = "Внимание! Заканчиваются товары:\n";
+    private static final String RESTORED_HEADER = "Товары снова в наличии:\n";
+    private static final String EXPIRY_HEADER = "Скоро истекает срок годности:\n";
+
+    public String formatSingle(StockEvent event) {
+        Product product = event.getProduct();
+        return String.format(
+                event.isRestored()
+                        ? "Товар снова в наличии:\n\nID: %d\nНазвание: %s / %s\nОстаток: %d шт."
+                        : "Внимание! Заканчивается товар:\n\nID: %d\nНазвание: %s / %s\nОстаток: %d шт.",
+                product.getId(),
+                product.getNameRu(),
+                product.getNameEn(),
+                product.getStockQuantity()
+        );
+    }
+
+    /**
+     * Собирает дайджесты: сначала заканчивающиеся товары, затем вернувшиеся в наличие.
+     * Каждое сообщение не длиннее MAX_MESSAGE_LENGTH; строка товара не разрывается между сообщениями.
+     */
+    public List<String> buildDigests(Collection<StockEvent> events) {
+        List<String> digests = new ArrayList<>();
+        appendSection(digests, LOW_STOCK_HEADER, events.stream().filter(e -> !e.isRestored()).toList());
+        appendSection(digests, RESTORED_HEADER, events.stream().filter(StockEvent::isRestored).toList());
+        return digests;
+    }
+
+    private void appendSection(List<String> digests, String header, List<StockEvent> events) {
+        appendLines(digests, header, events.stream().map(event -> formatLine(event.getProduct())).toList());
+    }
+
+    /**
+     * Дайджесты сроков годности: по блоку на день истечения, блоки по возрастанию даты.
+     * Лимит MAX_MESSAGE_LENGTH соблюдается так же, как в buildDigests.
+     */
+    public List<String> buildExpiryDigests(Map<LocalDate, Map<Long, Product>> productsByDay,
+                                           Map<LocalDate, Integer> daysLeft) {
+        List<String> lines = new ArrayList<>();
+        productsByDay.forEach((day, products) -> {
+            lines.add(String.format("\n%s (осталось дней: %d):", day, daysLeft.get(day)));
+            products.values().forEach(product -> lines.add(formatLine(product)));
+        });
+        List<String> digests = new ArrayList<>();
+        appendLines(digests, EXPIRY_HEADER, lines);
+        return digests;
+    }
+
+    private String formatLine(Product product) {
+        return String.format("\nID %d: %s / %s — %d шт.",
+                product.getId(), product.getNameRu(), product.getNameEn(), product.getStockQuantity());
+    }
+
+    private void appendLines(List<String> digests, String header, List<String> lines) {
+        StringBuilder current = new StringBuilder(header);
+        for (String line : lines) {
+            if (current.length() + line.length() > MAX_MESSAGE_LENGTH && current.length() > header.length()) {
+                digests.add(current.toString());
+                current = new StringBuilder(header);
+            }
+            current.append(line);
+        }
+        if (current.length() > header.length()) {
+            digests.add(current.toString());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.yourcompany.notificationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.notificationservice.client.ProductServiceClient;
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductPage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Локальная копия каталога для ответов бота без обращения к product-service.
+ * Наполняется из компактируемого топика product-changes, который читается с начала при каждом старте;
+ * каждый экземпляр назначает себе все партиции вручную, без участия в группе консьюмеров, поэтому рестарты
+ * не оставляют брошенных групп. Число партиций задаётся product.snapshot.partitions и должно совпадать
+ * с kafka.topics.partitions в product-service.
+ * Продукты, созданные до появления топика, один раз догружаются постранично по HTTP;
+ * события из топика при этом имеют приоритет над ответами HTTP.
+ */
+@Component
+@Slf4j
+public class ProductSnapshotStore implements ConsumerSeekAware {
+
+    static final String PRODUCT_CHANGES_TOPIC = "product-changes";
+    private static final int BOOTSTRAP_PAGE_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ProductServiceClient productServiceClient;
+    private final long bootstrapRetryMs;
+
+    private final ConcurrentSkipListMap<Long, Product> products = new ConcurrentSkipListMap<>();
+    // Продукты, удалённые во время начальной загрузки: загрузка не должна вернуть их по устаревшей странице
+    private final Set<Long> removedDuringBootstrap = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public ProductSnapshotStore(ObjectMapper objectMapper,
+                                ProductServiceClient productServiceClient,
+                                @Value("${product.snapshot.bootstrap-retry-ms:30000}") long bootstrapRetryMs) {
+        this.objectMapper = objectMapper;
+        this.productServiceClient = productServiceClient;
+        this.bootstrapRetryMs = bootstrapRetryMs;
+    }
+
+    // Группа фиксирована и нужна только для коммита смещений, которые не используются: чтение всегда с начала
+    @KafkaListener(id = "productSnapshotListener",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(topic = PRODUCT_CHANGES_TOPIC,
+                    partitions = "#{'0-' + (${product.snapshot.partitions:3} - 1)}"),
+            groupId = "${spring.application.name}-snapshot",
+            properties = {"auto.offset.reset=earliest", "allow.auto.create.topics=false"})
+    public void onProductChange(ConsumerRecord<String, String> record) {
+        long id;
+        try {
+            id = Long.parseLong(record.key());
+        } catch (NumberFormatException e) {
+            log.error("Ignoring product change with malformed key '{}'", record.key());
+            return;
+        }
+        if (record.value() == null) {
+            remove(id);
+            return;
+        }
+        try {
+            products.put(id, objectMapper.readValue(record.value(), Product.class));
+        } catch (JsonProcessingException e) {
+            log.error("Error deserializing product change for id {}: {}", id, record.value(), e);
+        }
+    }
+
+    /**
+     * Копия строится из всего топика, поэтому назначенные партиции читаем с начала.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        loadFrom(null).whenComplete((loaded, e) -> {
+            if (e != null) {
+                log.warn("Product snapshot bootstrap failed, retrying in {} ms: {}", bootstrapRetryMs, e.toString());
+                CompletableFuture.delayedExecutor(bootstrapRetryMs, TimeUnit.MILLISECONDS).execute(this::bootstrap);
+                return;
+            }
+            ready = true;
+            removedDuringBootstrap.clear();
+            log.info("Product snapshot bootstrapped with {} products", products.size());
+        });
+    }
+
+    private CompletableFuture<Void> loadFrom(Long after) {
+        return productServiceClient.getProductsPage(after, null, BOOTSTRAP_PAGE_SIZE).thenCompose(page -> {
+            if (page == null || page.getItems() == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            for (Product product : page.getItems()) {
+                products.putIfAbsent(product.getId(), product);
+                if (removedDuringBootstrap.contains(product.getId())) {
+                    products.remove(product.getId(), product);
+                }
+            }
+            return page.getNextCursor() != null ? loadFrom(page.getNextCursor()) : CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private void remove(long id) {
+        if (!ready) {
+            removedDuringBootstrap.add(id);
+        }
+        products.remove(id);
+    }
+
+    /**
+     * @return true, когда начальная загрузка завершена и копии можно отвечать на запросы.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<Product> get(long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    /**
+     * Страница продуктов с той же семантикой курсоров, что у GET /api/products/page.
+     * @param after ID последнего продукта предыдущей страницы, null — с начала.
+     * @param before ID первого продукта следующей страницы (переход назад); имеет приоритет над after.
+     * @param size Размер страницы.
+     */
+    public ProductPage getPage(Long after, Long before, int size) {
+        NavigableMap<Long, Product> range = before != null
+                ? products.headMap(before, false).descendingMap()
+                : products.tailMap(after != null ? after : Long.MIN_VALUE, false);
+        List<Product> items = new ArrayList<>(size);
+        for (Product product : range.values()) {
+            if (items.size() == size) {
+                break;
+            }
+            items.add(product);
+        }
+        if (before != null) {
+            Collections.reverse(items);
+        }
+        ProductPage page = new ProductPage();
+        page.setItems(items);
+        if (!items.isEmpty()) {
+            Long firstId = items.get(0).getId();
+            Long lastId = items.get(items.size() - 1).getId();
+            page.setNextCursor(products.higherKey(lastId) != null ? lastId : null);
+            page.setPrevCursor(products.lowerKey(firstId) != null ? firstId : null);
+        }
+        return page;
+    }
+
+    public int size() {
+        return products.size();
+    }
+}
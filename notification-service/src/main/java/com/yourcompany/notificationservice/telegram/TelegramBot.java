@@ -1,39 +1,65 @@
 package com.yourcompany.notificationservice.telegram;
 
+import com.yourcompany.notificationservice.client.ProductServiceClient;
 import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductPage;
+import com.yourcompany.notificationservice.service.ProductSnapshotStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+/**
+ * Telegram-бот каталога. /product и /allproducts отвечают из локальной копии каталога (ProductSnapshotStore);
+ * пока она не загружена, а также для /find бот обращается к product-service асинхронно: поток long polling
+ * только разбирает команду и запускает запрос, а ответ пользователю отправляется по его завершении.
+ */
 @Component
 public class TelegramBot extends TelegramLongPollingBot {
 
     private static final Logger a_log = LoggerFactory.getLogger(TelegramBot.class);
 
+    private static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final int PRODUCTS_PAGE_SIZE = 10;
+    // Формат callback data кнопок листания: products:next:<after> / products:prev:<before>
+    private static final String PRODUCTS_CALLBACK_PREFIX = "products:";
+    private static final String PRODUCTS_NEXT = "next";
+    private static final String PRODUCTS_PREV = "prev";
+
     private final String botName;
-    private final RestTemplate restTemplate;
-    private final String productServiceUrl;
+    private final ProductServiceClient productServiceClient;
+    private final ProductSnapshotStore snapshotStore;
+    private final TelegramSendQueue sendQueue;
 
-    public TelegramBot(@Value("${telegram.bot.token}") String botToken,
+    public TelegramBot(DefaultBotOptions botOptions,
+                       @Value("${telegram.bot.token}") String botToken,
                        @Value("${telegram.bot.username}") String botName,
-                       RestTemplate restTemplate,
-                       @Value("${product.service.url}") String productServiceUrl) {
-        super(botToken);
+                       ProductServiceClient productServiceClient,
+                       ProductSnapshotStore snapshotStore,
+                       TelegramSendQueue sendQueue) {
+        super(botOptions, botToken);
         this.botName = botName;
-        this.restTemplate = restTemplate;
-        this.productServiceUrl = productServiceUrl;
+        this.productServiceClient = productServiceClient;
+        this.snapshotStore = snapshotStore;
+        this.sendQueue = sendQueue;
     }
 
     @Override
@@ -43,12 +69,18 @@ public class TelegramBot extends TelegramLongPollingBot {
 
     @Override
     public void onUpdateReceived(Update update) {
+        if (update.hasCallbackQuery()) {
+            handleCallbackQuery(update.getCallbackQuery());
+            return;
+        }
         if (update.hasMessage() && update.getMessage().hasText()) {
             String text = update.getMessage().getText();
             long chatId = update.getMessage().getChatId();
 
             if ("/allproducts".equals(text)) {
                 handleAllProductsCommand(chatId);
+            } else if ("/find".equals(text) || text.startsWith("/find ")) {
+                handleFindCommand(chatId, text);
             } else if (text.startsWith("/product")) {
                 handleProductByIdCommand(chatId, text);
             } else {
@@ -58,20 +90,24 @@ public class TelegramBot extends TelegramLongPollingBot {
     }
 
     private void handleProductByIdCommand(long chatId, String text) {
+        String[] parts = text.split(" ");
+        if (parts.length < 2) {
+            sendMessage(chatId, "Пожалуйста, укажите ID продукта. Пример: /product 1");
+            return;
+        }
+        long id;
         try {
-            String[] parts = text.split(" ");
-            if (parts.length < 2) {
-                sendMessage(chatId, "Пожалуйста, укажите ID продукта. Пример: /product 1");
-                return;
-            }
-            Long id = Long.parseLong(parts[1]);
-            Product product = restTemplate.getForObject(productServiceUrl + "/api/products/" + id, Product.class);
-
-            if (product == null) {
+            id = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            sendMessage(chatId, "Неверный формат ID. Пожалуйста, введите число.");
+            return;
+        }
+        replyWhenFetched(chatId, findProduct(id), found -> {
+            if (found.isEmpty()) {
                 sendMessage(chatId, "Продукт с ID " + id + " не найден.");
                 return;
             }
-
+            Product product = found.get();
             StringBuilder sb = new StringBuilder();
             sb.append("Информация о продукте ID ").append(product.getId()).append(":\n");
             sb.append("- Название: ").append(product.getNameEn()).append(" / ").append(product.getNameRu()).append("\n");
@@ -80,71 +116,181 @@ public class TelegramBot extends TelegramLongPollingBot {
             sb.append("- Размер: ").append(product.getSize()).append("\n");
             sb.append("- Срок годности: ").append(product.getExpiryDate() != null ? product.getExpiryDate().toString() : "null").append("\n");
             sb.append("- Остаток: ").append(product.getStockQuantity()).append(" шт.\n");
-            if (product.getCategory() != null) {
-                sb.append("- Категория: ").append(product.getCategory().getName()).append("\n");
+            String categoryName = product.getCategory() != null ? product.getCategory().getName() : product.getCategoryName();
+            if (categoryName != null) {
+                sb.append("- Категория: ").append(categoryName).append("\n");
             }
             sendMessage(chatId, sb.toString());
-
-        } catch (NumberFormatException e) {
-            sendMessage(chatId, "Неверный формат ID. Пожалуйста, введите число.");
-        } catch (HttpClientErrorException.NotFound e) {
-            sendMessage(chatId, "Продукт с указанным ID не найден.");
-        } catch (Exception e) {
-            a_log.error("Failed to fetch product by ID from product-service", e);
-            sendMessage(chatId, "Не удалось получить информацию о продукте. Попробуйте позже.");
-        }
+        }, "Не удалось получить информацию о продукте. Попробуйте позже.");
     }
 
     private void handleAllProductsCommand(long chatId) {
-        try {
-            ResponseEntity<List<Product>> response = restTemplate.exchange(
-                    productServiceUrl + "/api/products",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<Product>>() {}
-            );
-
-            List<Product> products = response.getBody();
-            if (products == null || products.isEmpty()) {
+        replyWhenFetched(chatId, findProductsPage(null, null), page -> {
+            if (page == null || page.getItems() == null || page.getItems().isEmpty()) {
                 sendMessage(chatId, "Продукты не найдены.");
                 return;
             }
+            SendMessage message = new SendMessage(String.valueOf(chatId), formatProductsPage(page));
+            message.setReplyMarkup(productsPageKeyboard(page));
+            send(chatId, message);
+        }, "Не удалось получить список продуктов. Попробуйте позже.");
+    }
 
-            StringBuilder sb = new StringBuilder("Список всех продуктов:\n");
-            for (Product product : products) {
-                sb.append("ID: ").append(product.getId())
-                  .append(", Название: ").append(product.getNameRu())
-                  .append(" (").append(product.getNameEn()).append(")")
-                  .append(", Остаток: ").append(product.getStockQuantity()).append("\n");
+    private void handleFindCommand(long chatId, String text) {
+        String query = text.substring("/find".length()).trim();
+        if (query.isEmpty()) {
+            sendMessage(chatId, "Пожалуйста, укажите текст для поиска. Пример: /find ноутбук");
+            return;
+        }
+        replyWhenFetched(chatId, productServiceClient.searchProducts(query, PRODUCTS_PAGE_SIZE), result -> {
+            if (result == null || result.getItems() == null || result.getItems().isEmpty()) {
+                sendMessage(chatId, "По запросу \"" + query + "\" ничего не найдено.");
+                return;
             }
-            sendMessage(chatId, sb.toString());
+            StringBuilder sb = new StringBuilder("Результаты поиска \"").append(query).append("\":\n");
+            appendProductLines(sb, result.getItems());
+            if (result.isHasNext()) {
+                sb.append("Показаны первые ").append(PRODUCTS_PAGE_SIZE).append(" результатов, уточните запрос.\n");
+            }
+            sendMessage(chatId, truncate(sb));
+        }, "Не удалось выполнить поиск. Попробуйте позже.");
+    }
+
+    /**
+     * Нажатие кнопки листания: загружается только запрошенная страница,
+     * а исходное сообщение редактируется вместо отправки нового.
+     */
+    private void handleCallbackQuery(CallbackQuery callbackQuery) {
+        String data = callbackQuery.getData();
+        Message message = callbackQuery.getMessage();
+        // Ответ на callback убирает индикатор загрузки на кнопке; к лимиту чата он не относится
+        enqueue(null, new AnswerCallbackQuery(callbackQuery.getId()));
+        if (data == null || message == null || !data.startsWith(PRODUCTS_CALLBACK_PREFIX)) {
+            return;
+        }
+        long chatId = message.getChatId();
+        String[] parts = data.split(":");
+        Long cursor;
+        try {
+            cursor = Long.parseLong(parts[2]);
+        } catch (RuntimeException e) {
+            a_log.warn("Ignoring malformed products page callback {}", data);
+            return;
+        }
+        CompletableFuture<ProductPage> request = PRODUCTS_NEXT.equals(parts[1])
+                ? findProductsPage(cursor, null)
+                : findProductsPage(null, cursor);
+        replyWhenFetched(chatId, request, page -> {
+            if (page == null || page.getItems() == null || page.getItems().isEmpty()) {
+                return;
+            }
+            EditMessageText edit = new EditMessageText(formatProductsPage(page));
+            edit.setChatId(chatId);
+            edit.setMessageId(message.getMessageId());
+            edit.setReplyMarkup(productsPageKeyboard(page));
+            send(chatId, edit);
+        }, "Не удалось получить список продуктов. Попробуйте позже.");
+    }
+
+    private CompletableFuture<Optional<Product>> findProduct(long id) {
+        return snapshotStore.isReady()
+                ? CompletableFuture.completedFuture(snapshotStore.get(id))
+                : productServiceClient.getProduct(id);
+    }
+
+    private CompletableFuture<ProductPage> findProductsPage(Long after, Long before) {
+        return snapshotStore.isReady()
+                ? CompletableFuture.completedFuture(snapshotStore.getPage(after, before, PRODUCTS_PAGE_SIZE))
+                : productServiceClient.getProductsPage(after, before, PRODUCTS_PAGE_SIZE);
+    }
 
-        } catch (Exception e) {
-            a_log.error("Failed to fetch products from product-service", e);
-            sendMessage(chatId, "Не удалось получить список продуктов. Попробуйте позже.");
+    /**
+     * Выполняет onResult, когда ответ product-service получен; при ошибке запроса
+     * или обработки ответа пользователь получает failureText.
+     */
+    private <T> void replyWhenFetched(long chatId, CompletableFuture<T> request, Consumer<T> onResult, String failureText) {
+        request.thenAccept(onResult)
+                .exceptionally(e -> {
+                    a_log.error("Failed to handle product-service response for chat {}", chatId, e);
+                    sendMessage(chatId, failureText);
+                    return null;
+                });
+    }
+
+    private String formatProductsPage(ProductPage page) {
+        StringBuilder sb = new StringBuilder("Список продуктов:\n");
+        appendProductLines(sb, page.getItems());
+        return truncate(sb);
+    }
+
+    private void appendProductLines(StringBuilder sb, List<Product> products) {
+        for (Product product : products) {
+            sb.append("ID: ").append(product.getId())
+              .append(", Название: ").append(product.getNameRu())
+              .append(" (").append(product.getNameEn()).append(")")
+              .append(", Остаток: ").append(product.getStockQuantity()).append("\n");
         }
     }
 
+    // Страница небольшая, но длинные названия всё равно не должны выйти за лимит Telegram
+    private String truncate(StringBuilder sb) {
+        return sb.length() > MAX_MESSAGE_LENGTH ? sb.substring(0, MAX_MESSAGE_LENGTH) : sb.toString();
+    }
+
+    private InlineKeyboardMarkup productsPageKeyboard(ProductPage page) {
+        List<InlineKeyboardButton> row = new ArrayList<>();
+        if (page.getPrevCursor() != null) {
+            InlineKeyboardButton prev = new InlineKeyboardButton("◀ Назад");
+            prev.setCallbackData(PRODUCTS_CALLBACK_PREFIX + PRODUCTS_PREV + ":" + page.getPrevCursor());
+            row.add(prev);
+        }
+        if (page.getNextCursor() != null) {
+            InlineKeyboardButton next = new InlineKeyboardButton("Вперёд ▶");
+            next.setCallbackData(PRODUCTS_CALLBACK_PREFIX + PRODUCTS_NEXT + ":" + page.getNextCursor());
+            row.add(next);
+        }
+        return new InlineKeyboardMarkup(row.isEmpty() ? List.of() : List.of(row));
+    }
+
     private void sendDefaultResponse(long chatId) {
-        sendMessage(chatId, "Неизвестная команда. Доступные команды: /allproducts, /product <id>");
+        sendMessage(chatId, "Неизвестная команда. Доступные команды: /allproducts, /product <id>, /find <текст>");
+    }
+
+    /**
+     * Ставит вызов Bot API в очередь отправки с учётом лимитов Telegram.
+     * @param chatId Чат, к лимиту которого относится вызов.
+     * @param method Вызов Bot API.
+     * @return Результат вызова.
+     */
+    public <T extends Serializable> CompletableFuture<T> enqueue(String chatId, BotApiMethod<T> method) {
+        return sendQueue.submit(chatId, () -> execute(method));
     }
 
     private void sendMessage(long chatId, String text) {
-        SendMessage message = new SendMessage(String.valueOf(chatId), text);
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            a_log.error("Failed to send message to chat {}: {}", chatId, e.getMessage());
-        }
+        send(chatId, new SendMessage(String.valueOf(chatId), text));
     }
 
-    public void sendNotification(String chatId, String text) {
-        SendMessage message = new SendMessage(chatId, text);
-        try {
-            execute(message);
-            a_log.info("Sent notification to chat {}: {}", chatId, text);
-        } catch (TelegramApiException e) {
-            a_log.error("Failed to send notification to chat {}: {}", chatId, e.getMessage());
-        }
+    private void send(long chatId, BotApiMethod<?> method) {
+        enqueue(String.valueOf(chatId), method)
+                .whenComplete((sent, e) -> {
+                    if (e != null) {
+                        a_log.error("Failed to send message to chat {}: {}", chatId, e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Отправляет уведомление в чат через очередь отправки.
+     * @return Future, завершающийся, когда Telegram принял сообщение (или попытки исчерпаны).
+     */
+    public CompletableFuture<Message> sendNotification(String chatId, String text) {
+        return enqueue(chatId, new SendMessage(chatId, text))
+                .whenComplete((sent, e) -> {
+                    if (e != null) {
+                        a_log.error("Failed to send notification to chat {}: {}", chatId, e.getMessage());
+                    } else {
+                        a_log.info("Sent notification to chat {}: {}", chatId, text);
+                    }
+                });
     }
 }
@@ -0,0 +1,298 @@
+package com.yourcompany.notificationservice.telegram;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ограниченная асинхронная очередь исходящих вызовов Telegram Bot API.
+ * Соблюдает лимиты Telegram: общий (по умолчанию 30 сообщений/с) и на чат (1 сообщение/с).
+ * При ответе 429 ждёт retry_after, временные ошибки повторяет с экспоненциальной задержкой.
+ * Вызывающий поток (Kafka listener, long polling) не блокируется: результат приходит в CompletableFuture.
+ * Если вызов поставлен в очередь внутри трейса, каждая попытка вызова — дочерний span этого трейса.
+ */
+@Component
+public class TelegramSendQueue {
+
+    private static final Logger a_log = LoggerFactory.getLogger(TelegramSendQueue.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int IDLE_BUCKET_CLEANUP_EVERY = 1_000;
+
+    private final int capacity;
+    private final double perChatRate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> chatBuckets = new ConcurrentHashMap<>();
+    // Один поток: вызовы к Telegram идут последовательно, общий лимит выдерживается ожиданием в нём же
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "telegram-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+
+    public TelegramSendQueue(@Value("${telegram.send.queue-capacity:10000}") int capacity,
+                             @Value("${telegram.send.global-rate:30}") double globalRate,
+                             @Value("${telegram.send.per-chat-rate:1}") double perChatRate,
+                             @Value("${telegram.send.max-attempts:5}") int maxAttempts,
+                             @Value("${telegram.send.initial-backoff-ms:1000}") long initialBackoffMs,
+                             MeterRegistry meterRegistry,
+                             Tracer tracer) {
+        this.capacity = capacity;
+        this.perChatRate = perChatRate;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.globalBucket = new TokenBucket(globalRate, (int) Math.max(1, globalRate));
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        Gauge.builder("telegram.send.queue.depth", queueDepth, AtomicInteger::get).register(meterRegistry);
+        registerCounter("sent", sentCount);
+        registerCounter("failed", failedCount);
+        registerCounter("rejected", rejectedCount);
+        registerCounter("retried", retriedCount);
+    }
+
+    private void registerCounter(String result, AtomicLong count) {
+        FunctionCounter.builder("telegram.send.messages", count, AtomicLong::doubleValue)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит вызов в очередь.
+     * @param chatId Чат, к лимиту которого относится вызов; null — только общий лимит.
+     * @param call Вызов Bot API (например, () -> bot.execute(sendMessage)).
+     * @return Результат вызова; завершается исключением, если очередь переполнена или попытки исчерпаны.
+     */
+    public <T> CompletableFuture<T> submit(String chatId, Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (queueDepth.incrementAndGet() > capacity) {
+            queueDepth.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException("Telegram send queue is full"));
+            return result;
+        }
+        schedule(new Task<>(chatId, call, result, tracer.currentTraceContext().context()));
+        return result;
+    }
+
+    private void schedule(Task<?> task) {
+        long delayNanos = task.chatId == null ? 0 : reserveChatSlot(task.chatId);
+        try {
+            dispatcher.schedule(() -> dispatch(task), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(task, e);
+        }
+    }
+
+    private <T> void dispatch(Task<T> task) {
+        long globalWait = globalBucket.reserve(System.nanoTime());
+        if (globalWait > 0) {
+            LockSupport.parkNanos(globalWait);
+        }
+        Span span = task.traceContext != null
+                ? tracer.spanBuilder().setParent(task.traceContext).name("telegram api call").kind(Span.Kind.CLIENT)
+                        .tag("telegram.attempt", String.valueOf(task.attempt)).start()
+                : null;
+        long startedAt = System.nanoTime();
+        try {
+            T value = task.call.call();
+            recordCall(startedAt, span, "success", "none", null);
+            queueDepth.decrementAndGet();
+            if (sentCount.incrementAndGet() % IDLE_BUCKET_CLEANUP_EVERY == 0) {
+                evictIdleChatBuckets();
+            }
+            task.result.complete(value);
+        } catch (TelegramApiRequestException e) {
+            Integer errorCode = e.getErrorCode();
+            recordCall(startedAt, span, "error", errorCode != null && errorCode != 0 ? errorCode.toString() : "none", e);
+            if (errorCode != null && errorCode == TOO_MANY_REQUESTS) {
+                long retryAfterMs = retryAfterMillis(e);
+                // Пауза распространяется на все сообщения этого чата, а не только на текущее
+                long blockedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+                if (task.chatId != null) {
+                    chatBuckets.compute(task.chatId, (id, bucket) -> {
+                        TokenBucket chatBucket = bucket != null ? bucket : new TokenBucket(perChatRate, 1);
+                        chatBucket.blockUntil(blockedUntil);
+                        return chatBucket;
+                    });
+                } else {
+                    globalBucket.blockUntil(blockedUntil);
+                }
+                retry(task, retryAfterMs, e);
+            } else if (errorCode == null || errorCode == 0 || errorCode >= 500) {
+                // Нет кода ответа API или ошибка на стороне Telegram — повторяем
+                retry(task, backoffMillis(task.attempt), e);
+            } else {
+                fail(task, e);
+            }
+        } catch (TelegramApiException e) {
+            // Сетевые ошибки без ответа API считаем временными
+            recordCall(startedAt, span, "error", "network", e);
+            retry(task, backoffMillis(task.attempt), e);
+        } catch (Exception e) {
+            recordCall(startedAt, span, "error", "exception", e);
+            fail(task, e);
+        }
+    }
+
+    /**
+     * Длительность одного вызова Bot API (без ожидания в очереди); code — код ошибки Telegram
+     * (429, 400, 403...), network — нет ответа, none — успех или ответ без кода.
+     */
+    private void recordCall(long startedAt, Span span, String result, String code, Exception error) {
+        Timer.builder("telegram.api.requests")
+                .tag("result", result)
+                .tag("code", code)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (span != null) {
+            span.tag("telegram.result", result).tag("telegram.code", code);
+            if (error != null) {
+                span.error(error);
+            }
+            span.end();
+        }
+    }
+
+    private void retry(Task<?> task, long delayMs, Exception cause) {
+        if (task.attempt >= maxAttempts) {
+            fail(task, cause);
+            return;
+        }
+        task.attempt++;
+        retriedCount.incrementAndGet();
+        a_log.warn("Telegram call for chat {} failed ({}), retry {} of {} in {} ms",
+                task.chatId, cause.getMessage(), task.attempt, maxAttempts, delayMs);
+        try {
+            dispatcher.schedule(() -> schedule(task), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(task, e);
+        }
+    }
+
+    private void fail(Task<?> task, Exception cause) {
+        queueDepth.decrementAndGet();
+        failedCount.incrementAndGet();
+        task.result.completeExceptionally(cause);
+    }
+
+    private long retryAfterMillis(TelegramApiRequestException e) {
+        Integer retryAfter = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+        return retryAfter != null ? TimeUnit.SECONDS.toMillis(retryAfter) : initialBackoffMs;
+    }
+
+    private long backoffMillis(int attempt) {
+        return Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(attempt - 1, 20));
+    }
+
+    /**
+     * Резервирует слот в ведре чата внутри compute: удаление простаивающего ведра идёт по тому же ключу
+     * через computeIfPresent, поэтому ведро не может исчезнуть между получением и резервированием,
+     * а новое сообщение чата не получит свежее ведро в обход лимита.
+     */
+    private long reserveChatSlot(String chatId) {
+        long[] delayNanos = new long[1];
+        chatBuckets.compute(chatId, (id, bucket) -> {
+            TokenBucket chatBucket = bucket != null ? bucket : new TokenBucket(perChatRate, 1);
+            delayNanos[0] = chatBucket.reserve(System.nanoTime());
+            return chatBucket;
+        });
+        return delayNanos[0];
+    }
+
+    /**
+     * Удаляет ведра без зарезервированных слотов. Проверка и удаление атомарны для каждого чата:
+     * слот, зарезервированный после now, делает ведро непростаивающим.
+     */
+    private void evictIdleChatBuckets() {
+        long now = System.nanoTime();
+        for (String chatId : chatBuckets.keySet()) {
+            chatBuckets.computeIfPresent(chatId, (id, bucket) -> bucket.isIdle(now) ? null : bucket);
+        }
+    }
+
+    /**
+     * Сообщения, принятые в очередь и ещё не отправленные (включая ожидающие повтора).
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private static final class Task<T> {
+        private final String chatId;
+        private final Callable<T> call;
+        private final CompletableFuture<T> result;
+        // Контекст трейса вызывающего потока; null — вызов вне трейса
+        private final TraceContext traceContext;
+        private int attempt = 1;
+
+        private Task(String chatId, Callable<T> call, CompletableFuture<T> result, TraceContext traceContext) {
+            this.chatId = chatId;
+            this.call = call;
+            this.result = result;
+            this.traceContext = traceContext;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.yourcompany.notificationservice.telegram;
+
+/**
+ * Ограничитель частоты в виде «виртуального расписания» (GCRA).
+ * Вместо ожидания токена вызывающий резервирует ближайший свободный слот и получает задержку до него,
+ * поэтому очередь не блокирует поток ради одного чата.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+
+    // Теоретическое время прихода следующего сообщения, если бы сообщения шли ровно с интервалом
+    private long theoreticalArrivalNanos;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrivalNanos = Long.MIN_VALUE / 2;
+    }
+
+    /**
+     * Резервирует слот под одно сообщение.
+     * @param nowNanos Текущее время (System.nanoTime()).
+     * @return Сколько наносекунд нужно подождать до отправки; 0 — можно сразу.
+     */
+    synchronized long reserve(long nowNanos) {
+        long sendAt = Math.max(nowNanos, theoreticalArrivalNanos - burstToleranceNanos);
+        theoreticalArrivalNanos = Math.max(theoreticalArrivalNanos, nowNanos) + intervalNanos;
+        return sendAt - nowNanos;
+    }
+
+    /**
+     * Запрещает отправку до untilNanos (ответ 429 с retry_after).
+     */
+    synchronized void blockUntil(long untilNanos) {
+        theoreticalArrivalNanos = Math.max(theoreticalArrivalNanos, untilNanos + burstToleranceNanos);
+    }
+
+    /**
+     * Ведро без зарезервированных слотов ничем не отличается от нового, и его можно удалить.
+     */
+    synchronized boolean isIdle(long nowNanos) {
+        return theoreticalArrivalNanos <= nowNanos;
+    }
+}
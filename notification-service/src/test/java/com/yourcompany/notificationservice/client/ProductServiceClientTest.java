@@ -0,0 +1,167 @@
+package com.yourcompany.notificationservice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductSearchPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductServiceClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockResponses;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/products", this::respond);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        lastQuery.set(exchange.getRequestURI().getRawQuery());
+        if (blockResponses) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String path = exchange.getRequestURI().getPath();
+        byte[] body = (path.endsWith("/search")
+                ? "{\"items\":[{\"id\":7,\"nameRu\":\"Ноутбук\"}],\"hasNext\":false}"
+                : "{\"id\":1,\"nameEn\":\"Milk\",\"nameRu\":\"Молоко\",\"expiryDate\":\"2026-03-01\",\"stockQuantity\":5}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        int code = status.get();
+        if (code == 200) {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } else {
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        }
+    }
+
+    private ProductServiceClient client(long readTimeoutMs, int maxConcurrent, int failureThreshold, long openMs) {
+        return new ProductServiceClient(objectMapper, baseUrl, 1000, readTimeoutMs, maxConcurrent, failureThreshold, openMs);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void getProduct_shouldParseResponse() throws Exception {
+        Optional<Product> product = client(1000, 5, 3, 1000).getProduct(1L).get(5, TimeUnit.SECONDS);
+
+        assertTrue(product.isPresent());
+        assertEquals("Молоко", product.get().getNameRu());
+        assertEquals(5, product.get().getStockQuantity());
+    }
+
+    @Test
+    void getProduct_shouldReturnEmptyOnNotFound() throws Exception {
+        status.set(404);
+
+        assertTrue(client(1000, 5, 3, 1000).getProduct(99L).get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void searchProducts_shouldEncodeQuery() throws Exception {
+        ProductSearchPage page = client(1000, 5, 3, 1000).searchProducts("игровой ноутбук", 10).get(5, TimeUnit.SECONDS);
+
+        assertEquals(7L, page.getItems().get(0).getId());
+        assertEquals("q=%D0%B8%D0%B3%D1%80%D0%BE%D0%B2%D0%BE%D0%B9%20%D0%BD%D0%BE%D1%83%D1%82%D0%B1%D1%83%D0%BA&size=10",
+                lastQuery.get());
+    }
+
+    @Test
+    void searchProducts_shouldEncodeReservedCharacters() throws Exception {
+        client(1000, 5, 3, 1000).searchProducts("C++ & Java", 10).get(5, TimeUnit.SECONDS);
+
+        assertEquals("q=C%2B%2B%20%26%20Java&size=10", lastQuery.get());
+    }
+
+    @Test
+    void circuitBreaker_shouldOpenAfterServerErrorsAndCloseAfterProbe() throws Exception {
+        ProductServiceClient client = client(1000, 5, 2, 200);
+        status.set(500);
+
+        assertInstanceOf(ProductServiceUnavailableException.class, failureOf(client.getProduct(1L)));
+        assertInstanceOf(ProductServiceUnavailableException.class, failureOf(client.getProduct(1L)));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // Открытый автомат отвечает сразу, не обращаясь к сервису
+        assertInstanceOf(ProductServiceUnavailableException.class, failureOf(client.getProduct(1L)));
+        assertEquals(2, hits.get());
+
+        status.set(200);
+        Thread.sleep(250);
+        assertTrue(client.getProduct(1L).get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void getProduct_shouldFailOnReadTimeout() {
+        blockResponses = true;
+
+        Throwable failure = failureOf(client(100, 5, 3, 1000).getProduct(1L));
+
+        assertInstanceOf(ProductServiceUnavailableException.class, failure);
+    }
+
+    @Test
+    void getProduct_shouldRejectRequestsOverConcurrencyLimit() throws Exception {
+        ProductServiceClient client = client(5000, 1, 3, 1000);
+        blockResponses = true;
+
+        CompletableFuture<Optional<Product>> first = client.getProduct(1L);
+        Throwable rejected = failureOf(client.getProduct(2L));
+
+        assertInstanceOf(ProductServiceUnavailableException.class, rejected);
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+    }
+}
@@ -0,0 +1,93 @@
+package com.yourcompany.notificationservice.service;
+
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaBatchTracingTest {
+
+    private Tracer tracer;
+    private Propagator propagator;
+    private Span.Builder spanBuilder;
+    private Span started;
+    private KafkaBatchTracing batchTracing;
+
+    @BeforeEach
+    void setUp() {
+        tracer = mock(Tracer.class);
+        propagator = mock(Propagator.class);
+        spanBuilder = mock(Span.Builder.class, RETURNS_SELF);
+        started = mock(Span.class);
+        when(spanBuilder.start()).thenReturn(started);
+        when(propagator.fields()).thenReturn(List.of("traceparent", "tracestate"));
+        batchTracing = new KafkaBatchTracing(tracer, propagator);
+    }
+
+    @Test
+    void startReceive_shouldSkipRecordsWithoutTraceHeaders() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("low-stock-notifications", 0, 0, "1", "{}");
+
+        assertNull(batchTracing.startReceive(record));
+        verify(propagator, never()).extract(any(), any());
+    }
+
+    @Test
+    void startReceive_shouldContinueTraceFromHeaders() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("low-stock-notifications", 2, 7, "1", "{}");
+        record.headers().add("traceparent",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01".getBytes(StandardCharsets.UTF_8));
+        when(propagator.extract(any(), any())).thenReturn(spanBuilder);
+
+        assertSame(started, batchTracing.startReceive(record));
+        verify(spanBuilder).name("low-stock-notifications receive");
+        verify(spanBuilder).kind(Span.Kind.CONSUMER);
+    }
+
+    @Test
+    void startDigest_shouldUseLatestEventAsParentAndLinkTheRest() {
+        Span first = spanWithContext();
+        Span latest = spanWithContext();
+        when(tracer.spanBuilder()).thenReturn(spanBuilder);
+
+        batchTracing.startDigest("stock", Arrays.asList(first, null, latest));
+
+        verify(spanBuilder).setParent(latest.context());
+        verify(spanBuilder, times(1)).addLink(any(Link.class));
+        verify(spanBuilder, never()).setNoParent();
+    }
+
+    @Test
+    void startDigest_shouldStartNewTraceWhenEventsHadNoContext() {
+        when(tracer.spanBuilder()).thenReturn(spanBuilder);
+
+        batchTracing.startDigest("expiry", Arrays.asList(null, null));
+
+        verify(spanBuilder).setNoParent();
+        verify(spanBuilder, never()).setParent(any());
+    }
+
+    private static Span spanWithContext() {
+        Span span = mock(Span.class);
+        when(span.context()).thenReturn(mock(TraceContext.class));
+        return span;
+    }
+}
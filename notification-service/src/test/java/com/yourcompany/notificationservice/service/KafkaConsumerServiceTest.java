@@ -2,15 +2,31 @@ package com.yourcompany.notificationservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.StockEvent;
 import com.yourcompany.notificationservice.telegram.TelegramBot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,13 +38,16 @@ public class KafkaConsumerServiceTest {
     @Mock
     private TelegramBot telegramBot;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KafkaBatchTracing batchTracing = new KafkaBatchTracing(Tracer.NOOP, Propagator.NOOP);
+
     private KafkaConsumerService kafkaConsumerService;
 
     private final String TEST_NOTIFICATION_CHAT_ID = "testChatId";
 
     @BeforeEach
     public void setUp() {
-        kafkaConsumerService = new KafkaConsumerService(objectMapper, telegramBot, TEST_NOTIFICATION_CHAT_ID);
+        kafkaConsumerService = new KafkaConsumerService(objectMapper, telegramBot, TEST_NOTIFICATION_CHAT_ID, meterRegistry, batchTracing, new NotificationRenderer());
     }
 
     @Test
@@ -40,8 +59,10 @@ public class KafkaConsumerServiceTest {
         product.setNameRu("Телефон");
         product.setNameEn("Phone");
         product.setStockQuantity(5);
+        StockEvent event = new StockEvent();
+        event.setProduct(product);
 
-        when(objectMapper.readValue(message, Product.class)).thenReturn(product);
+        when(objectMapper.readValue(message, StockEvent.class)).thenReturn(event);
 
         // When
         kafkaConsumerService.listenLowStock(message);
@@ -54,12 +75,115 @@ public class KafkaConsumerServiceTest {
     public void testListenLowStock_JsonProcessingException() throws JsonProcessingException {
         // Given
         String message = "invalid-json";
-        when(objectMapper.readValue(message, Product.class)).thenThrow(new JsonProcessingException(""){});
+        when(objectMapper.readValue(message, StockEvent.class)).thenThrow(new JsonProcessingException(""){});
 
         // When
         kafkaConsumerService.listenLowStock(message);
 
         // Then
         verify(telegramBot, never()).sendNotification(anyString(), anyString());
+        assertEquals(1.0, meterRegistry.get("notification.kafka.malformed")
+                .tag("topic", "low-stock-notifications").counter().count());
+    }
+
+    @Test
+    public void testListenLowStock_RestoredEvent() throws JsonProcessingException {
+        // Given
+        String message = "{\"eventType\":\"STOCK_RESTORED\",\"id\":1,\"nameRu\":\"Телефон\",\"nameEn\":\"Phone\",\"stockQuantity\":50}";
+        ObjectMapper realObjectMapper = new ObjectMapper();
+        when(objectMapper.readValue(message, StockEvent.class)).thenReturn(realObjectMapper.readValue(message, StockEvent.class));
+
+        // When
+        kafkaConsumerService.listenLowStock(message);
+
+        // Then
+        verify(telegramBot).sendNotification(TEST_NOTIFICATION_CHAT_ID,
+                "Товар снова в наличии:\n\nID: 1\nНазвание: Телефон / Phone\nОстаток: 50 шт.");
+    }
+
+    @Test
+    public void testListenLowStockBatch_DedupesByProductAndSendsOneDigest() {
+        // Given
+        KafkaConsumerService batchService = new KafkaConsumerService(new ObjectMapper(), telegramBot, TEST_NOTIFICATION_CHAT_ID, meterRegistry, batchTracing, new NotificationRenderer());
+        when(telegramBot.sendNotification(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(new Message()));
+        List<String> messages = List.of(
+                "{\"eventType\":\"LOW_STOCK\",\"id\":1,\"nameRu\":\"Телефон\",\"nameEn\":\"Phone\",\"stockQuantity\":5}",
+                "{\"eventType\":\"LOW_STOCK\",\"id\":2,\"nameRu\":\"Планшет\",\"nameEn\":\"Tablet\",\"stockQuantity\":3}",
+                "{\"eventType\":\"STOCK_RESTORED\",\"id\":1,\"nameRu\":\"Телефон\",\"nameEn\":\"Phone\",\"stockQuantity\":40}",
+                "invalid-json");
+
+        // When
+        batchService.listenLowStockBatch(records(messages));
+
+        // Then
+        ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        verify(telegramBot, times(2)).sendNotification(eq(TEST_NOTIFICATION_CHAT_ID), text.capture());
+        assertEquals("Внимание! Заканчиваются товары:\n\nID 2: Планшет / Tablet — 3 шт.", text.getAllValues().get(0));
+        assertEquals("Товары снова в наличии:\n\nID 1: Телефон / Phone — 40 шт.", text.getAllValues().get(1));
+    }
+
+    @Test
+    public void testListenLowStockBatch_SplitsDigestByTelegramLimit() {
+        // Given
+        KafkaConsumerService batchService = new KafkaConsumerService(new ObjectMapper(), telegramBot, TEST_NOTIFICATION_CHAT_ID, meterRegistry, batchTracing, new NotificationRenderer());
+        when(telegramBot.sendNotification(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(new Message()));
+        List<String> messages = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            messages.add("{\"id\":" + id + ",\"nameRu\":\"Товар\",\"nameEn\":\"Product\",\"stockQuantity\":1}");
+        }
+
+        // When
+        batchService.listenLowStockBatch(records(messages));
+
+        // Then
+        ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        verify(telegramBot, atLeast(2)).sendNotification(eq(TEST_NOTIFICATION_CHAT_ID), text.capture());
+        text.getAllValues().forEach(digest -> assertTrue(digest.length() <= NotificationRenderer.MAX_MESSAGE_LENGTH));
+        assertEquals(500, text.getAllValues().stream().mapToLong(digest -> digest.lines().filter(l -> l.startsWith("ID ")).count()).sum());
+    }
+
+    @Test
+    public void testListenLowStockBatch_FailedSendIsNotAcknowledged() {
+        // Given
+        KafkaConsumerService batchService = new KafkaConsumerService(new ObjectMapper(), telegramBot, TEST_NOTIFICATION_CHAT_ID, meterRegistry, batchTracing, new NotificationRenderer());
+        when(telegramBot.sendNotification(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TelegramApiException("Bad Gateway")));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> batchService.listenLowStockBatch(records(List.of(
+                "{\"id\":1,\"nameRu\":\"Телефон\",\"nameEn\":\"Phone\",\"stockQuantity\":5}"))));
+    }
+
+    @Test
+    public void testListenExpiryBatch_GroupsByDayNearestFirst() {
+        // Given
+        KafkaConsumerService batchService = new KafkaConsumerService(new ObjectMapper().registerModule(new JavaTimeModule()),
+                telegramBot, TEST_NOTIFICATION_CHAT_ID, meterRegistry, batchTracing, new NotificationRenderer());
+        when(telegramBot.sendNotification(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(new Message()));
+        List<String> messages = List.of(
+                "{\"expiryDate\":\"2026-03-08\",\"daysLeft\":7,\"products\":"
+                        + "[{\"id\":3,\"nameRu\":\"Сыр\",\"nameEn\":\"Cheese\",\"stockQuantity\":4}]}",
+                "{\"expiryDate\":\"2026-03-02\",\"daysLeft\":1,\"products\":"
+                        + "[{\"id\":1,\"nameRu\":\"Молоко\",\"nameEn\":\"Milk\",\"stockQuantity\":10}]}",
+                "{\"expiryDate\":\"2026-03-02\",\"daysLeft\":1,\"products\":"
+                        + "[{\"id\":1,\"nameRu\":\"Молоко\",\"nameEn\":\"Milk\",\"stockQuantity\":10}]}");
+
+        // When
+        batchService.listenExpiryBatch(records(messages));
+
+        // Then
+        ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        verify(telegramBot, times(1)).sendNotification(eq(TEST_NOTIFICATION_CHAT_ID), text.capture());
+        assertEquals("Скоро истекает срок годности:\n"
+                + "\n2026-03-02 (осталось дней: 1):\nID 1: Молоко / Milk — 10 шт."
+                + "\n2026-03-08 (осталось дней: 7):\nID 3: Сыр / Cheese — 4 шт.", text.getValue());
+    }
+
+    private static List<ConsumerRecord<String, String>> records(List<String> messages) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            records.add(new ConsumerRecord<>("low-stock-notifications", 0, i, null, messages.get(i)));
+        }
+        return records;
     }
 }
@@ -0,0 +1,126 @@
+package com.yourcompany.notificationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yourcompany.notificationservice.client.ProductServiceClient;
+import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductPage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSnapshotStoreTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    private ProductSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProductSnapshotStore(new ObjectMapper().registerModule(new JavaTimeModule()), productServiceClient, 1000);
+    }
+
+    private static ConsumerRecord<String, String> change(long id, String json) {
+        return new ConsumerRecord<>(ProductSnapshotStore.PRODUCT_CHANGES_TOPIC, 0, 0, String.valueOf(id), json);
+    }
+
+    private static Product product(long id, String nameRu) {
+        Product product = new Product();
+        product.setId(id);
+        product.setNameRu(nameRu);
+        return product;
+    }
+
+    private static ProductPage page(Long nextCursor, Product... items) {
+        ProductPage page = new ProductPage();
+        page.setItems(List.of(items));
+        page.setNextCursor(nextCursor);
+        return page;
+    }
+
+    @Test
+    void onProductChange_shouldApplyUpdatesAndTombstones() {
+        store.onProductChange(change(1, "{\"id\":1,\"nameRu\":\"Молоко\",\"expiryDate\":\"2026-03-01\",\"stockQuantity\":5}"));
+        store.onProductChange(change(1, "{\"id\":1,\"nameRu\":\"Молоко\",\"expiryDate\":\"2026-03-01\",\"stockQuantity\":3}"));
+
+        assertEquals(3, store.get(1).get().getStockQuantity());
+        assertEquals(LocalDate.of(2026, 3, 1), store.get(1).get().getExpiryDate());
+
+        store.onProductChange(change(1, null));
+
+        assertTrue(store.get(1).isEmpty());
+    }
+
+    @Test
+    void onProductChange_shouldSkipMalformedMessages() {
+        store.onProductChange(change(1, "not-json"));
+        store.onProductChange(new ConsumerRecord<>(ProductSnapshotStore.PRODUCT_CHANGES_TOPIC, 0, 0, "abc", "{}"));
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void bootstrap_shouldLoadAllPagesWithoutOverwritingEvents() {
+        store.onProductChange(change(2, "{\"id\":2,\"nameRu\":\"Хлеб (из события)\"}"));
+        when(productServiceClient.getProductsPage(null, null, 500))
+                .thenReturn(CompletableFuture.completedFuture(page(2L, product(1, "Молоко"), product(2, "Хлеб"))));
+        when(productServiceClient.getProductsPage(2L, null, 500))
+                .thenReturn(CompletableFuture.completedFuture(page(null, product(3, "Сыр"))));
+
+        assertFalse(store.isReady());
+        store.bootstrap();
+
+        assertTrue(store.isReady());
+        assertEquals(3, store.size());
+        assertEquals("Хлеб (из события)", store.get(2).get().getNameRu());
+    }
+
+    @Test
+    void bootstrap_shouldNotRestoreProductsDeletedWhileLoading() {
+        store.onProductChange(change(1, null));
+        when(productServiceClient.getProductsPage(null, null, 500))
+                .thenReturn(CompletableFuture.completedFuture(page(null, product(1, "Молоко"), product(2, "Хлеб"))));
+
+        store.bootstrap();
+
+        assertTrue(store.get(1).isEmpty());
+        assertTrue(store.get(2).isPresent());
+    }
+
+    @Test
+    void getPage_shouldPageForwardAndBackwardWithCursors() {
+        for (long id = 1; id <= 5; id++) {
+            store.onProductChange(change(id, "{\"id\":" + id + "}"));
+        }
+
+        ProductPage first = store.getPage(null, null, 2);
+        assertEquals(List.of(1L, 2L), first.getItems().stream().map(Product::getId).toList());
+        assertEquals(2L, first.getNextCursor());
+        assertNull(first.getPrevCursor());
+
+        ProductPage last = store.getPage(4L, null, 2);
+        assertEquals(List.of(5L), last.getItems().stream().map(Product::getId).toList());
+        assertNull(last.getNextCursor());
+        assertEquals(5L, last.getPrevCursor());
+
+        ProductPage back = store.getPage(null, 5L, 2);
+        assertEquals(List.of(3L, 4L), back.getItems().stream().map(Product::getId).toList());
+        assertEquals(4L, back.getNextCursor());
+        assertEquals(3L, back.getPrevCursor());
+    }
+}
@@ -1,7 +1,14 @@
 package com.yourcompany.notificationservice.telegram;
 
+import com.yourcompany.notificationservice.client.ProductServiceClient;
+import com.yourcompany.notificationservice.client.ProductServiceUnavailableException;
 import com.yourcompany.notificationservice.dto.Category;
 import com.yourcompany.notificationservice.dto.Product;
+import com.yourcompany.notificationservice.dto.ProductPage;
+import com.yourcompany.notificationservice.dto.ProductSearchPage;
+import com.yourcompany.notificationservice.service.ProductSnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,25 +16,29 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Chat;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.util.Collections;
-import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,21 +46,24 @@ class TelegramBotTest {
 
     private static final String BOT_TOKEN = "test-token";
     private static final String BOT_NAME = "test-bot";
-    private static final String PRODUCT_SERVICE_URL = "http://localhost:8081";
     private static final long CHAT_ID = 12345L;
 
     @Mock
-    private RestTemplate restTemplate;
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private ProductSnapshotStore snapshotStore;
 
     private TelegramBot telegramBot;
 
     @BeforeEach
     void setUp() {
         // Используем spy, чтобы мокать только метод execute, а остальную логику оставить
-        telegramBot = Mockito.spy(new TelegramBot(BOT_TOKEN, BOT_NAME, restTemplate, PRODUCT_SERVICE_URL));
+        telegramBot = Mockito.spy(new TelegramBot(new DefaultBotOptions(), BOT_TOKEN, BOT_NAME, productServiceClient, snapshotStore,
+                new TelegramSendQueue(100, 1000, 1000, 1, 10, new SimpleMeterRegistry(), Tracer.NOOP)));
         try {
             // Мокаем метод execute, чтобы он ничего не делал и не бросал исключение
-            Mockito.doReturn(null).when(telegramBot).execute(any(SendMessage.class));
+            Mockito.lenient().doReturn(null).when(telegramBot).execute(any(SendMessage.class));
         } catch (TelegramApiException e) {
             // Это исключение не будет брошено, так как мы мокаем метод
         }
@@ -75,25 +89,90 @@ class TelegramBotTest {
         product.setNameRu("Тестовый Продукт");
         product.setNameEn("Test Product");
         product.setStockQuantity(10);
-        List<Product> productList = Collections.singletonList(product);
-        ResponseEntity<List<Product>> responseEntity = new ResponseEntity<>(productList, HttpStatus.OK);
+        ProductPage page = new ProductPage();
+        page.setItems(Collections.singletonList(product));
+        page.setNextCursor(1L);
 
-        when(restTemplate.exchange(
-                PRODUCT_SERVICE_URL + "/api/products",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<Product>>() {}
-        )).thenReturn(responseEntity);
+        when(productServiceClient.getProductsPage(null, null, 10)).thenReturn(CompletableFuture.completedFuture(page));
 
         // When
         telegramBot.onUpdateReceived(update);
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
-        assertEquals("Список всех продуктов:\nID: 1, Название: Тестовый Продукт (Test Product), Остаток: 10\n", sentMessage.getText());
+        assertEquals("Список продуктов:\nID: 1, Название: Тестовый Продукт (Test Product), Остаток: 10\n", sentMessage.getText());
+        InlineKeyboardMarkup keyboard = (InlineKeyboardMarkup) sentMessage.getReplyMarkup();
+        assertEquals(1, keyboard.getKeyboard().get(0).size());
+        assertEquals("products:next:1", keyboard.getKeyboard().get(0).get(0).getCallbackData());
+    }
+
+    @Test
+    void onUpdateReceived_shouldEditMessageOnPageCallback() throws TelegramApiException {
+        // Given
+        Mockito.doReturn(null).when(telegramBot).execute(any(EditMessageText.class));
+        Mockito.doReturn(true).when(telegramBot).execute(any(AnswerCallbackQuery.class));
+        Product product = new Product();
+        product.setId(11L);
+        product.setNameRu("Планшет");
+        product.setNameEn("Tablet");
+        product.setStockQuantity(3);
+        ProductPage page = new ProductPage();
+        page.setItems(Collections.singletonList(product));
+        page.setPrevCursor(11L);
+
+        when(productServiceClient.getProductsPage(10L, null, 10)).thenReturn(CompletableFuture.completedFuture(page));
+
+        Message message = new Message();
+        Chat chat = new Chat();
+        chat.setId(CHAT_ID);
+        message.setChat(chat);
+        message.setMessageId(42);
+        CallbackQuery callbackQuery = new CallbackQuery();
+        callbackQuery.setId("callback-1");
+        callbackQuery.setData("products:next:10");
+        callbackQuery.setMessage(message);
+        Update update = new Update();
+        update.setCallbackQuery(callbackQuery);
+
+        // When
+        telegramBot.onUpdateReceived(update);
+
+        // Then
+        ArgumentCaptor<EditMessageText> captor = ArgumentCaptor.forClass(EditMessageText.class);
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
+        EditMessageText edit = captor.getValue();
+        assertEquals(String.valueOf(CHAT_ID), edit.getChatId());
+        assertEquals(42, edit.getMessageId());
+        assertEquals("Список продуктов:\nID: 11, Название: Планшет (Tablet), Остаток: 3\n", edit.getText());
+        assertEquals("products:prev:11", edit.getReplyMarkup().getKeyboard().get(0).get(0).getCallbackData());
+        verify(telegramBot, timeout(1000)).execute(any(AnswerCallbackQuery.class));
+    }
+
+    @Test
+    void onUpdateReceived_shouldHandleFindCommand() throws TelegramApiException {
+        // Given
+        Update update = createMockUpdate("/find игровой ноутбук");
+        Product product = new Product();
+        product.setId(7L);
+        product.setNameRu("Ноутбук");
+        product.setNameEn("Laptop");
+        product.setStockQuantity(4);
+        ProductSearchPage result = new ProductSearchPage();
+        result.setItems(Collections.singletonList(product));
+
+        when(productServiceClient.searchProducts("игровой ноутбук", 10)).thenReturn(CompletableFuture.completedFuture(result));
+
+        // When
+        telegramBot.onUpdateReceived(update);
+
+        // Then
+        ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
+        assertEquals("Результаты поиска \"игровой ноутбук\":\nID: 7, Название: Ноутбук (Laptop), Остаток: 4\n",
+                captor.getValue().getText());
     }
 
     @Test
@@ -112,14 +191,14 @@ class TelegramBotTest {
         category.setName("Тестовая Категория");
         product.setCategory(category);
 
-        when(restTemplate.getForObject(PRODUCT_SERVICE_URL + "/api/products/1", Product.class)).thenReturn(product);
+        when(productServiceClient.getProduct(1L)).thenReturn(CompletableFuture.completedFuture(Optional.of(product)));
 
         // When
         telegramBot.onUpdateReceived(update);
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
         String expectedText = "Информация о продукте ID 1:\n" +
@@ -133,22 +212,60 @@ class TelegramBotTest {
         assertEquals(expectedText, sentMessage.getText());
     }
 
+    @Test
+    void onUpdateReceived_shouldAnswerFromSnapshotWhenLoaded() throws TelegramApiException {
+        // Given
+        Update update = createMockUpdate("/product 1");
+        Product product = new Product();
+        product.setId(1L);
+        product.setNameEn("Milk");
+        product.setNameRu("Молоко");
+        product.setStockQuantity(5);
+        product.setCategoryName("Молочные продукты");
+        when(snapshotStore.isReady()).thenReturn(true);
+        when(snapshotStore.get(1L)).thenReturn(Optional.of(product));
+
+        // When
+        telegramBot.onUpdateReceived(update);
+
+        // Then
+        ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
+        assertTrue(captor.getValue().getText().endsWith("- Категория: Молочные продукты\n"));
+        verifyNoInteractions(productServiceClient);
+    }
+
     @Test
     void onUpdateReceived_shouldHandleProductNotFound() throws TelegramApiException {
         // Given
         Update update = createMockUpdate("/product 99");
-        when(restTemplate.getForObject(PRODUCT_SERVICE_URL + "/api/products/99", Product.class))
-                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        when(productServiceClient.getProduct(99L)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // When
         telegramBot.onUpdateReceived(update);
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
-        assertEquals("Не удалось получить информацию о продукте. Попробуйте позже.", sentMessage.getText());
+        assertEquals("Продукт с ID 99 не найден.", sentMessage.getText());
+    }
+
+    @Test
+    void onUpdateReceived_shouldHandleProductServiceUnavailable() throws TelegramApiException {
+        // Given
+        Update update = createMockUpdate("/product 1");
+        when(productServiceClient.getProduct(1L)).thenReturn(CompletableFuture.failedFuture(
+                new ProductServiceUnavailableException("Circuit breaker for product-service is open")));
+
+        // When
+        telegramBot.onUpdateReceived(update);
+
+        // Then
+        ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
+        assertEquals("Не удалось получить информацию о продукте. Попробуйте позже.", captor.getValue().getText());
     }
 
     @Test
@@ -161,12 +278,28 @@ class TelegramBotTest {
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
         assertEquals("Неверный формат ID. Пожалуйста, введите число.", sentMessage.getText());
     }
 
+    @Test
+    void onUpdateReceived_shouldNotTreatFindPrefixAsFindCommand() throws TelegramApiException {
+        // Given
+        Update update = createMockUpdate("/findx ноутбук");
+
+        // When
+        telegramBot.onUpdateReceived(update);
+
+        // Then
+        ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
+        assertEquals("Неизвестная команда. Доступные команды: /allproducts, /product <id>, /find <текст>",
+                captor.getValue().getText());
+        verify(productServiceClient, never()).searchProducts(anyString(), anyInt());
+    }
+
     @Test
     void onUpdateReceived_shouldHandleUnknownCommand() throws TelegramApiException {
         // Given
@@ -177,10 +310,10 @@ class TelegramBotTest {
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
-        assertEquals("Неизвестная команда. Доступные команды: /allproducts, /product <id>", sentMessage.getText());
+        assertEquals("Неизвестная команда. Доступные команды: /allproducts, /product <id>, /find <текст>", sentMessage.getText());
     }
 
     @Test
@@ -194,7 +327,7 @@ class TelegramBotTest {
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(chatId, sentMessage.getChatId());
         assertEquals(text, sentMessage.getText());
@@ -210,7 +343,7 @@ class TelegramBotTest {
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
         assertEquals("Пожалуйста, укажите ID продукта. Пример: /product 1", sentMessage.getText());
@@ -220,21 +353,17 @@ class TelegramBotTest {
     void handleAllProductsCommand_shouldHandleEmptyList() throws TelegramApiException {
         // Given
         Update update = createMockUpdate("/allproducts");
-        ResponseEntity<List<Product>> responseEntity = new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+        ProductPage page = new ProductPage();
+        page.setItems(Collections.emptyList());
 
-        when(restTemplate.exchange(
-                PRODUCT_SERVICE_URL + "/api/products",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<Product>>() {}
-        )).thenReturn(responseEntity);
+        when(productServiceClient.getProductsPage(null, null, 10)).thenReturn(CompletableFuture.completedFuture(page));
 
         // When
         telegramBot.onUpdateReceived(update);
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
         assertEquals("Продукты не найдены.", sentMessage.getText());
@@ -244,19 +373,15 @@ class TelegramBotTest {
     void handleAllProductsCommand_shouldHandleException() throws TelegramApiException {
         // Given
         Update update = createMockUpdate("/allproducts");
-        when(restTemplate.exchange(
-                PRODUCT_SERVICE_URL + "/api/products",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<Product>>() {}
-        )).thenThrow(new RuntimeException("Service unavailable"));
+        when(productServiceClient.getProductsPage(null, null, 10))
+                .thenReturn(CompletableFuture.failedFuture(new ProductServiceUnavailableException("Service unavailable")));
 
         // When
         telegramBot.onUpdateReceived(update);
 
         // Then
         ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
-        verify(telegramBot).execute(captor.capture());
+        verify(telegramBot, timeout(1000)).execute(captor.capture());
         SendMessage sentMessage = captor.getValue();
         assertEquals(String.valueOf(CHAT_ID), sentMessage.getChatId());
         assertEquals("Не удалось получить список продуктов. Попробуйте позже.", sentMessage.getText());
@@ -0,0 +1,124 @@
+package com.yourcompany.notificationservice.telegram;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TelegramSendQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TelegramSendQueue sendQueue;
+
+    @AfterEach
+    void tearDown() {
+        sendQueue.shutdown();
+    }
+
+    @Test
+    void submit_shouldSpaceMessagesToSameChatByPerChatRate() throws Exception {
+        // Given: 10 сообщений/с в чат, т.е. не чаще одного раза в 100 мс
+        sendQueue = new TelegramSendQueue(100, 1000, 10, 1, 10, meterRegistry, Tracer.NOOP);
+        List<Long> sentAt = new CopyOnWriteArrayList<>();
+
+        // When
+        CompletableFuture<?> first = sendQueue.submit("chat", () -> sentAt.add(System.nanoTime()));
+        CompletableFuture<?> second = sendQueue.submit("chat", () -> sentAt.add(System.nanoTime()));
+        CompletableFuture<?> otherChat = sendQueue.submit("other", () -> sentAt.add(System.nanoTime()));
+        CompletableFuture.allOf(first, second, otherChat).get(2, TimeUnit.SECONDS);
+
+        // Then: второе сообщение в тот же чат ждёт слот, сообщение в другой чат — нет
+        assertEquals(3, sentAt.size());
+        assertTrue(sentAt.get(2) - sentAt.get(0) >= TimeUnit.MILLISECONDS.toNanos(90));
+        assertEquals(0, sendQueue.getQueueDepth());
+        assertEquals(3, sendQueue.getSentCount());
+    }
+
+    @Test
+    void submit_shouldHonourRetryAfterOnTooManyRequests() throws Exception {
+        // Given
+        sendQueue = new TelegramSendQueue(100, 1000, 1000, 3, 10, meterRegistry, Tracer.NOOP);
+        TelegramApiRequestException tooManyRequests = mock(TelegramApiRequestException.class);
+        when(tooManyRequests.getErrorCode()).thenReturn(429);
+        when(tooManyRequests.getParameters()).thenReturn(new ResponseParameters(null, 1));
+        AtomicInteger attempts = new AtomicInteger();
+        long startedAt = System.nanoTime();
+
+        // When
+        String result = sendQueue.submit("chat", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw tooManyRequests;
+            }
+            return "ok";
+        }).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertTrue(System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(1, sendQueue.getRetriedCount());
+        assertEquals(1, meterRegistry.get("telegram.api.requests").tags("result", "error", "code", "429").timer().count());
+        assertEquals(1, meterRegistry.get("telegram.api.requests").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void submit_shouldFailAfterMaxAttempts() {
+        // Given
+        sendQueue = new TelegramSendQueue(100, 1000, 1000, 3, 1, meterRegistry, Tracer.NOOP);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        CompletableFuture<Object> result = sendQueue.submit("chat", () -> {
+            attempts.incrementAndGet();
+            throw new TelegramApiRequestException("Bad Gateway");
+        });
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TelegramApiRequestException.class, e.getCause());
+        assertEquals(3, attempts.get());
+        assertEquals(1, sendQueue.getFailedCount());
+        assertEquals(0, sendQueue.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("telegram.send.messages").tag("result", "failed").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("telegram.send.queue.depth").gauge().value());
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        // Given: первый вызов «висит», второй ждёт своей очереди — ёмкость 2 исчерпана
+        sendQueue = new TelegramSendQueue(2, 1000, 1000, 1, 10, meterRegistry, Tracer.NOOP);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        CompletableFuture<Boolean> first = sendQueue.submit("chat", () -> release.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = sendQueue.submit("other", () -> "second");
+        CompletableFuture<String> rejected = sendQueue.submit("chat", () -> "third");
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, sendQueue.getRejectedCount());
+        release.countDown();
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+    }
+}
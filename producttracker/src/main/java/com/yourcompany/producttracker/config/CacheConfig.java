@@ -0,0 +1,18 @@
+package com.yourcompany.producttracker.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Включает кэширование. Сам CacheManager (Caffeine) создаётся автоконфигурацией
+ * Spring Boot по настройкам spring.cache.* из application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Кэш ProductResponseDto по ID продукта.
+     */
+    public static final String PRODUCTS_CACHE = "products";
+}
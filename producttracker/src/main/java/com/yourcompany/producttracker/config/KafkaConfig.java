@@ -1,41 +1,71 @@
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.serialization.StringSerializer;
+package com.yourcompany.producttracker.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.kafka.config.TopicBuilder;
 
+/**
+ * Топики, которые создаёт product-service при старте (KafkaAdmin).
+ * Настройки уже существующих топиков KafkaAdmin приводит к описанным здесь (spring.kafka.admin.modify-topic-configs):
+ * например, топик, созданный брокером автоматически при первой отправке, становится компактируемым.
+ * Продюсер и ObjectMapper настраиваются автоконфигурацией Spring Boot из spring.kafka.* и spring.jackson.*.
+ */
 @Configuration
 public class KafkaConfig {
 
-    @Value("${spring.kafka.bootstrap-servers}")
-    private String bootstrapServers;
+    // Переходы остатка через порог (ключ — ID продукта)
+    public static final String LOW_STOCK_TOPIC = "low-stock-notifications";
+
+    // Текущее состояние каждого продукта (ключ — ID); удаление публикуется tombstone-сообщением
+    public static final String PRODUCT_CHANGES_TOPIC = "product-changes";
+
+    // Товары, входящие в окно истечения срока годности (ключ — день истечения)
+    public static final String EXPIRY_TOPIC = "product-expiry-notifications";
+
+    @Value("${kafka.topics.partitions:3}")
+    private int topicPartitions;
+
+    @Value("${kafka.topics.replicas:1}")
+    private int topicReplicas;
 
+    /**
+     * Ключ — ID продукта, поэтому события одного продукта попадают в одну партицию и читаются по порядку,
+     * а разные продукты распределяются между консьюмерами. Компакция оставляет последний переход
+     * по каждому продукту — то же, что остаётся после схлопывания пакета в notification-service.
+     */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+    public NewTopic lowStockTopic() {
+        return TopicBuilder.name(LOW_STOCK_TOPIC)
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .compact()
+                .build();
     }
 
+    /**
+     * Компактируемый топик: Kafka хранит последнее сообщение по каждому ключу,
+     * поэтому потребитель восстанавливает полный каталог, прочитав топик с начала.
+     */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public NewTopic productChangesTopic() {
+        return TopicBuilder.name(PRODUCT_CHANGES_TOPIC)
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .compact()
+                .build();
     }
 
+    /**
+     * Не компактируется: события с одним ключом (днём истечения) несут разные порции товаров,
+     * и компакция оставила бы только последнюю.
+     */
     @Bean
-    public ObjectMapper objectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        return objectMapper;
+    public NewTopic expiryTopic() {
+        return TopicBuilder.name(EXPIRY_TOPIC)
+                .partitions(topicPartitions)
+                .replicas(topicReplicas)
+                .build();
     }
 }
@@ -0,0 +1,29 @@
+package com.yourcompany.producttracker.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Профиль virtual-threads (см. application-virtual-threads.properties).
+ * Spring Boot молча игнорирует spring.threads.virtual.enabled на Java ниже 21,
+ * поэтому о таком запуске предупреждаем явно.
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRuntime() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("Profile 'virtual-threads' is active, but Java {} has no virtual threads; using platform threads",
+                    javaVersion);
+        } else {
+            log.info("Request handling, async and scheduled tasks run on virtual threads");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.yourcompany.producttracker.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yourcompany.producttracker.dto.CacheStatsDto;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Счётчики попаданий/промахов/вытеснений кэшей — чтобы подбирать их размер и TTL.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+
+    public CacheStatsController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping("/stats")
+    public List<CacheStatsDto> getCacheStats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private CacheStatsDto toDto(Cache cache) {
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            return new CacheStatsDto(cache.getName(), 0, 0, 0, 0, 0);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        return new CacheStatsDto(
+                cache.getName(),
+                nativeCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
@@ -3,6 +3,7 @@ package com.yourcompany.producttracker.controller;
 
 import com.yourcompany.producttracker.dto.CategoryRequestDto;
 import com.yourcompany.producttracker.dto.CategoryResponseDto;
+import com.yourcompany.producttracker.dto.CategorySummaryDto;
 import com.yourcompany.producttracker.service.CategoryService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +27,11 @@ public class CategoryController {
         return new ResponseEntity<>(createdCategory, HttpStatus.CREATED);
     }
 
+    @GetMapping("/summary")
+    public List<CategorySummaryDto> getCategorySummary() {
+        return categoryService.getCategorySummary();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CategoryResponseDto> getCategoryById(@PathVariable Long id) {
         CategoryResponseDto category = categoryService.getCategoryById(id);
@@ -1,13 +1,24 @@
 package com.yourcompany.producttracker.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yourcompany.producttracker.dto.ProductPageDto;
 import com.yourcompany.producttracker.dto.ProductRequestDto;
 import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.dto.ProductSearchPageDto;
+import com.yourcompany.producttracker.dto.ProductSuggestionDto;
 import com.yourcompany.producttracker.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,14 +28,77 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
+    private final ObjectWriter productWriter;
+    private final ObjectWriter ndjsonWriter;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        // Без flush после каждого объекта: буферизацией потока ответа управляет контейнер
+        this.productWriter = objectMapper.writerFor(ProductResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Строки NDJSON разделяются переводом строки, а не пробелом по умолчанию
+        this.ndjsonWriter = productWriter.withRootValueSeparator("");
     }
 
+    /**
+     * Весь каталог одним JSON-массивом. Ответ пишется в поток по мере чтения курсора БД,
+     * поэтому список целиком в памяти не собирается.
+     */
     @GetMapping
-    public List<ProductResponseDto> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = productWriter.createGenerator(out)) {
+                generator.writeStartArray();
+                productService.forEachProduct(product -> writeProduct(productWriter, generator, product));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Весь каталог в формате NDJSON: по одному продукту на строку.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = ndjsonWriter.createGenerator(out)) {
+                productService.forEachProduct(product -> {
+                    writeProduct(ndjsonWriter, generator, product);
+                    writeNewLine(generator);
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/page")
+    public ProductPageDto getProductsPage(@RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Long before,
+                                          @RequestParam(defaultValue = "50") int size) {
+        return productService.getProductsPage(after, before, size);
+    }
+
+    @GetMapping("/low-stock")
+    public ProductPageDto getLowStockProducts(@RequestParam(required = false) Long after,
+                                              @RequestParam(defaultValue = "50") int size) {
+        return productService.getLowStockProductsPage(after, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<ProductSuggestionDto> suggestProducts(@RequestParam String prefix,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggestProducts(prefix, limit);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchPageDto> searchProducts(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.searchProducts(q.trim(), page, size));
     }
 
     @GetMapping("/{id}")
@@ -59,4 +133,20 @@ public class ProductController {
     public List<ProductResponseDto> getProductsByCategoryId(@PathVariable Long categoryId) {
         return productService.getProductsByCategoryId(categoryId);
     }
+
+    private void writeProduct(ObjectWriter writer, JsonGenerator generator, ProductResponseDto product) {
+        try {
+            writer.writeValue(generator, product);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNewLine(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
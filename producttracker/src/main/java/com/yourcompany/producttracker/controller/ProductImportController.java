@@ -0,0 +1,44 @@
+package com.yourcompany.producttracker.controller;
+
+import com.yourcompany.producttracker.dto.ProductImportResultDto;
+import com.yourcompany.producttracker.service.ProductImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Массовая загрузка каталога поставщика. Тело запроса читается потоком, а не целиком.
+ */
+@RestController
+@RequestMapping("/api/products/import")
+public class ProductImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ProductImportResultDto importCsv(InputStream body) throws IOException {
+        return productImportService.importProducts(body, ProductImportService.Format.CSV);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ProductImportResultDto importNdjson(InputStream body) throws IOException {
+        return productImportService.importProducts(body, ProductImportService.Format.NDJSON);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidInput(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+package com.yourcompany.producttracker.controller;
+
+import com.yourcompany.producttracker.dto.StockAdjustmentDto;
+import com.yourcompany.producttracker.dto.StockAdjustmentResultDto;
+import com.yourcompany.producttracker.service.StockService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+public class StockController {
+
+    private final StockService stockService;
+
+    public StockController(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<StockAdjustmentResultDto> adjustStock(@PathVariable Long id,
+                                                                @Valid @RequestBody StockAdjustmentDto adjustment) {
+        StockAdjustmentResultDto result = stockService.adjustStock(id, adjustment.getDelta());
+        return switch (result.getStatus()) {
+            case APPLIED -> ResponseEntity.ok(result);
+            case INSUFFICIENT_STOCK, STOCK_LIMIT_EXCEEDED -> ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+        };
+    }
+
+    @PostMapping("/stock/adjustments")
+    public ResponseEntity<List<StockAdjustmentResultDto>> adjustStockBatch(@RequestBody List<StockAdjustmentDto> adjustments) {
+        if (adjustments.stream().anyMatch(adjustment -> adjustment.getProductId() == null || adjustment.getDelta() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(stockService.adjustStock(adjustments));
+    }
+}
@@ -0,0 +1,34 @@
+package com.yourcompany.producttracker.controller;
+
+import com.yourcompany.producttracker.dto.SuggestIndexStatsDto;
+import com.yourcompany.producttracker.service.ProductNameIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Состояние и перестроение индекса автодополнения по названиям продуктов.
+ */
+@RestController
+@RequestMapping("/api/suggest-index")
+public class SuggestIndexController {
+
+    private final ProductNameIndex productNameIndex;
+
+    public SuggestIndexController(ProductNameIndex productNameIndex) {
+        this.productNameIndex = productNameIndex;
+    }
+
+    @GetMapping("/stats")
+    public SuggestIndexStatsDto getStats() {
+        return productNameIndex.getStats();
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<SuggestIndexStatsDto> rebuild() {
+        productNameIndex.rebuild();
+        return ResponseEntity.ok(productNameIndex.getStats());
+    }
+}
@@ -10,4 +10,9 @@ import lombok.AllArgsConstructor;
 public class CategoryRequestDto {
     private String name;
     private String description;
+    private Integer lowStockThreshold;
+
+    public CategoryRequestDto(String name, String description) {
+        this(name, description, null);
+    }
 }
\ No newline at end of file
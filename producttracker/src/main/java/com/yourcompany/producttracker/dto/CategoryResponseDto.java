@@ -11,4 +11,9 @@ public class CategoryResponseDto {
     private Long id;
     private String name;
     private String description;
+    private Integer lowStockThreshold;
+
+    public CategoryResponseDto(Long id, String name, String description) {
+        this(id, name, description, null);
+    }
 }
\ No newline at end of file
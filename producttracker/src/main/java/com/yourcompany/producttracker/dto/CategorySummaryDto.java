@@ -0,0 +1,23 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Сводка по категории для дашбордов: число товаров, суммарный остаток,
+ * число товаров ниже порога и ближайший срок годности.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDto {
+    private Long categoryId;
+    private String categoryName;
+    private long productCount;
+    private long totalStock;
+    private long lowStockCount;
+    private LocalDate nearestExpiry;
+}
@@ -0,0 +1,15 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiringProductDto {
+    private Long id;
+    private String nameEn;
+    private String nameRu;
+    private Integer stockQuantity;
+}
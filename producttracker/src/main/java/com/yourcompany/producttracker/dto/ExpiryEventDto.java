@@ -0,0 +1,21 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Событие для топика product-expiry-notifications: товары, которые только что вошли
+ * в окно истечения срока годности, сгруппированные по дню истечения.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryEventDto {
+    private LocalDate expiryDate;
+    private int daysLeft;
+    private List<ExpiringProductDto> products;
+}
@@ -0,0 +1,30 @@
+package com.yourcompany.producttracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Событие смены состояния остатка для топика low-stock-notifications.
+ * Поля продукта сериализуются на верхний уровень, поэтому старые потребители,
+ * читающие сообщение как продукт, продолжают работать.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockEventDto {
+
+    public enum Type {
+        /** Остаток опустился ниже порога. */
+        LOW_STOCK,
+        /** Остаток снова не ниже порога. */
+        STOCK_RESTORED
+    }
+
+    private Type eventType;
+    private int threshold;
+
+    @JsonUnwrapped
+    private ProductResponseDto product;
+}
@@ -0,0 +1,19 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог массового импорта: счётчики и ошибки по строкам.
+ * Список ошибок ограничен, failed учитывает все неимпортированные строки.
+ */
+@Data
+public class ProductImportResultDto {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long durationMillis;
+    private List<ImportRowErrorDto> errors = new ArrayList<>();
+}
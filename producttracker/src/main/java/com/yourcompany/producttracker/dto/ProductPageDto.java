@@ -0,0 +1,21 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница продуктов при keyset-пагинации.
+ * nextCursor передаётся в следующий запрос как after; null означает последнюю страницу.
+ * prevCursor передаётся как before для перехода назад; null означает первую страницу.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDto {
+    private List<ProductResponseDto> items;
+    private Long nextCursor;
+    private Long prevCursor;
+}
@@ -30,4 +30,7 @@ public class ProductRequestDto {
     private Integer stockQuantity;
 
     private Long categoryId;
+
+    @Min(value = 0, message = "Порог низкого остатка не может быть отрицательным")
+    private Integer lowStockThreshold;
 }
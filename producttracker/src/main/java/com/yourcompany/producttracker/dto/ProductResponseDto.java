@@ -18,6 +18,7 @@ public class ProductResponseDto {
     private String size;
     private LocalDate expiryDate;
     private Integer stockQuantity;
+    private Integer lowStockThreshold;
     private Long categoryId;
     private String categoryName;
 }
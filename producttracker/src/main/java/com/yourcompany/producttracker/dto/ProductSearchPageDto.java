@@ -0,0 +1,21 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница результатов полнотекстового поиска, упорядоченных по релевантности.
+ * Общее число совпадений не считается (COUNT по большому каталогу дорог); hasNext говорит, есть ли следующая страница.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchPageDto {
+    private List<ProductResponseDto> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,17 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Подсказка автодополнения: продукт, одно из названий которого начинается с введённого префикса.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDto {
+    private Long id;
+    private String nameEn;
+    private String nameRu;
+}
@@ -0,0 +1,21 @@
+package com.yourcompany.producttracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Изменение остатка продукта: положительное delta — приход, отрицательное — списание.
+ * productId обязателен только в пакетном запросе.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+
+    private Long productId;
+
+    @NotNull(message = "Изменение остатка не может быть null")
+    private Integer delta;
+}
@@ -0,0 +1,23 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDto {
+
+    /**
+     * STOCK_LIMIT_EXCEEDED — остаток после прихода превысил бы Integer.MAX_VALUE.
+     */
+    public enum Status { APPLIED, INSUFFICIENT_STOCK, STOCK_LIMIT_EXCEEDED, NOT_FOUND }
+
+    private Long productId;
+    private Status status;
+    /**
+     * Остаток после изменения; null, если изменение не применено.
+     */
+    private Integer stockQuantity;
+}
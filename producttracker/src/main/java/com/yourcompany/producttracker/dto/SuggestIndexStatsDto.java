@@ -0,0 +1,22 @@
+package com.yourcompany.producttracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Состояние индекса автодополнения.
+ * estimatedMemoryBytes — приближённая оценка занимаемой кучи, без учёта общих для JVM строк.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestIndexStatsDto {
+    private int products;
+    private int terms;
+    private long estimatedMemoryBytes;
+    private long lastRebuildMillis;
+    private Instant lastRebuiltAt;
+}
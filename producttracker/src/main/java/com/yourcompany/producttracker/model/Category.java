@@ -16,4 +16,14 @@ public class Category {
     private Long id;
     private String name;
     private String description;
+
+    /**
+     * Порог низкого остатка для продуктов категории; null — использовать порог по умолчанию.
+     * Порог, заданный у самого продукта, имеет приоритет.
+     */
+    private Integer lowStockThreshold;
+
+    public Category(Long id, String name, String description) {
+        this(id, name, description, null);
+    }
 }
\ No newline at end of file
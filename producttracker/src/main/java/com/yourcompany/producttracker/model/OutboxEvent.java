@@ -0,0 +1,44 @@
+package com.yourcompany.producttracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Событие, ожидающее публикации в Kafka (transactional outbox).
+ * Сохраняется в той же транзакции, что и изменение продукта, и удаляется после успешной отправки.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // OutboxRelay публикует события в порядке id. События вставляет OutboxService перед фиксацией транзакции,
+    // ID выдаёт DEFAULT последовательности, пока транзакция держит блокировку строки продукта, поэтому события
+    // одного продукта упорядочены по фиксации даже между экземплярами сервиса. Пул ID в памяти это бы нарушил
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    // null — tombstone для компактируемого топика
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // W3C traceparent транзакции, записавшей событие; null — событие создано вне трейса
+    @Column(name = "traceparent", length = 55)
+    private String traceParent;
+}
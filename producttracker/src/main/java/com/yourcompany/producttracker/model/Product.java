@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -12,10 +17,16 @@ import java.time.LocalDate;
 @Data // Lombok: автоматически генерирует геттеры, сеттеры, toString, equals и hashCode методы.
 @NoArgsConstructor // Lombok: генерирует конструктор без аргументов, необходимый для JPA.
 @AllArgsConstructor // Lombok: генерирует конструктор со всеми аргументами.
+// UPDATE содержит только изменённые колонки: остаток, low_stock_notified и expiry_alerted_for меняются
+// и атомарными запросами ProductRepository, и запись всей строки затёрла бы их значениями, прочитанными раньше
+@DynamicUpdate
 public class Product {
 
     @Id // Указывает, что это первичный ключ.
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Стратегия генерации ID (автоинкремент).
+    // Последовательность с шагом 50 (pooled-оптимизатор): Hibernate выдаёт ID из памяти
+    // и может группировать INSERT в JDBC-батчи, чего не позволяет IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -62,7 +73,37 @@ public class Product {
     @Column(nullable = false)
     private Integer stockQuantity = 0;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    /**
+     * Индивидуальный порог низкого остатка; null — берётся порог категории, затем порог по умолчанию.
+     */
+    private Integer lowStockThreshold;
+
+    // Категория нужна только на пути записи (расчёт порога); запросы чтения берут её колонки через ProductView
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Category category;
+
+    /**
+     * Время последнего изменения. Служит водяным знаком для инкрементальной сверки низких остатков.
+     * Значение ставят часы БД (DEFAULT now() и триггер products_touch_updated_at), а не JVM,
+     * поэтому колонка не записывается из сущности.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private Instant updatedAt;
+
+    /**
+     * Последнее опубликованное состояние остатка: true — отправлено уведомление о низком остатке.
+     * Уведомления отправляются только при смене этого состояния.
+     */
+    @Column(nullable = false)
+    private boolean lowStockNotified;
+
+    /**
+     * Срок годности, о котором уже отправлено уведомление; null — уведомления не было.
+     * Отличие от expiryDate означает, что товар ещё не попадал в уведомление с текущим сроком.
+     */
+    private LocalDate expiryAlertedFor;
 }
\ No newline at end of file
@@ -2,8 +2,30 @@ package com.yourcompany.producttracker.repository;
 
 import com.yourcompany.producttracker.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Сводка остатков по всем категориям одним GROUP BY на стороне БД.
+     * Низкий остаток считается по той же цепочке порогов, что и уведомления:
+     * порог продукта, иначе категории, иначе defaultThreshold.
+     * @param defaultThreshold Порог низкого остатка по умолчанию.
+     * @return Агрегаты по каждой категории, включая пустые, упорядоченные по ID.
+     */
+    @Query(value = "SELECT c.id AS \"categoryId\", c.name AS \"categoryName\", "
+            + "COUNT(p.id) AS \"productCount\", "
+            + "COALESCE(SUM(p.stock_quantity), 0) AS \"totalStock\", "
+            + "COUNT(p.id) FILTER (WHERE p.stock_quantity "
+            + "< COALESCE(p.low_stock_threshold, c.low_stock_threshold, :defaultThreshold)) AS \"lowStockCount\", "
+            + "MIN(p.expiry_date) FILTER (WHERE p.stock_quantity > 0) AS \"nearestExpiry\" "
+            + "FROM categories c LEFT JOIN products p ON p.category_id = c.id "
+            + "GROUP BY c.id, c.name "
+            + "ORDER BY c.id", nativeQuery = true)
+    List<CategorySummaryView> summarize(@Param("defaultThreshold") int defaultThreshold);
+}
@@ -0,0 +1,24 @@
+package com.yourcompany.producttracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Агрегаты остатков по категории (см. CategoryRepository.summarize).
+ */
+public interface CategorySummaryView {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    Long getTotalStock();
+
+    Long getLowStockCount();
+
+    /**
+     * Ближайший срок годности среди товаров категории, которые есть в наличии; null — таких нет.
+     */
+    LocalDate getNearestExpiry();
+}
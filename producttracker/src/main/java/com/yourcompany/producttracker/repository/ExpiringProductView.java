@@ -0,0 +1,19 @@
+package com.yourcompany.producttracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Товар, вошедший в окно истечения срока годности (см. ProductRepository.markExpiringSoon).
+ */
+public interface ExpiringProductView {
+
+    Long getId();
+
+    String getNameEn();
+
+    String getNameRu();
+
+    LocalDate getExpiryDate();
+
+    Integer getStockQuantity();
+}
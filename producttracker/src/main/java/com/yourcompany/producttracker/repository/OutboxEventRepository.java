@@ -0,0 +1,34 @@
+package com.yourcompany.producttracker.repository;
+
+import com.yourcompany.producttracker.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Следующая порция событий в порядке записи.
+     */
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Транзакционная advisory-блокировка: в каждый момент outbox разбирает только один экземпляр сервиса,
+     * иначе два релея могли бы опубликовать соседние порции не по порядку.
+     * @param lockId Идентификатор блокировки.
+     * @return true, если блокировка получена; освобождается при завершении транзакции.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryAcquireRelayLock(@Param("lockId") long lockId);
+
+    /**
+     * Самое старое неотправленное событие — по нему считается отставание релея (поиск по первичному ключу).
+     */
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,13 @@
+package com.yourcompany.producttracker.repository;
+
+/**
+ * Проекция продукта для построения индекса автодополнения: только ID и названия.
+ */
+public interface ProductNameView {
+
+    Long getId();
+
+    String getNameEn();
+
+    String getNameRu();
+}
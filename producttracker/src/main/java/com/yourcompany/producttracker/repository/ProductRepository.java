@@ -1,10 +1,25 @@
 package com.yourcompany.producttracker.repository;
 
 import com.yourcompany.producttracker.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностью Product.
@@ -16,13 +31,224 @@ import java.util.List;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
-     * Кастомный метод для поиска продуктов, количество которых меньше заданного значения.
-     * Spring Data JPA автоматически сгенерирует SQL-запрос по названию метода.
-     * Этот метод будет использоваться сервисом уведомлений
-     * @param stockQuantity Пороговое значение запасов.
-     * @return Список продуктов с низким запасом.
+     * Общая часть запросов чтения: колонки ProductView и категория одним LEFT JOIN.
      */
-    List<Product> findByStockQuantityLessThan(Integer stockQuantity);
+    String PRODUCT_VIEW = "select p.id as id, p.nameEn as nameEn, p.nameRu as nameRu, "
+            + "p.characteristics as characteristics, p.weight as weight, p.size as size, "
+            + "p.expiryDate as expiryDate, p.stockQuantity as stockQuantity, "
+            + "p.lowStockThreshold as lowStockThreshold, c.id as categoryId, c.name as categoryName "
+            + "from Product p left join p.category c ";
 
-    List<Product> findByCategoryId(Long categoryId);
+    /**
+     * Продукты, изменённые начиная с since, у которых фактическое состояние остатка
+     * (ниже порога или нет) расходится с последним опубликованным.
+     * Эффективный порог считается в самой БД: порог продукта, иначе категории, иначе defaultThreshold.
+     * Используется сервисом уведомлений для периодической сверки. Возвращает только ID без блокировки:
+     * сам переход фиксирует markLowStockTransition по текущему состоянию строки.
+     * @param since Водяной знак — время начала предыдущей сверки.
+     * @param defaultThreshold Порог низкого остатка по умолчанию.
+     * @return ID продуктов, по которым, вероятно, нужно отправить уведомление о переходе.
+     */
+    @Query(value = "SELECT p.id FROM products p LEFT JOIN categories c ON c.id = p.category_id "
+            + "WHERE p.updated_at >= :since "
+            + "AND (p.stock_quantity < COALESCE(p.low_stock_threshold, c.low_stock_threshold, :defaultThreshold)) "
+            + "<> p.low_stock_notified", nativeQuery = true)
+    List<Long> findLowStockTransitionsSince(@Param("since") Instant since, @Param("defaultThreshold") int defaultThreshold);
+
+    /**
+     * Продукт по ID с блокировкой строки (SELECT ... FOR UPDATE) до конца транзакции.
+     * Записи, публикующие состояние продукта в product-changes, сначала блокируют строку:
+     * событие строится из актуальной строки, а ID события в outbox выдаётся под блокировкой,
+     * поэтому порядок событий одного продукта совпадает с порядком фиксации транзакций.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Блокирует продукты категории в порядке ID (как и пакетное изменение остатков, чтобы не было взаимоблокировок).
+     * @param categoryId ID категории.
+     * @return ID заблокированных продуктов.
+     */
+    @Query(value = "SELECT id FROM products WHERE category_id = :categoryId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Продукт по ID в виде проекции для чтения.
+     */
+    @Query(PRODUCT_VIEW + "where p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    @Query(PRODUCT_VIEW + "where p.category.id = :categoryId order by p.id")
+    List<ProductView> findByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(PRODUCT_VIEW + "where p.id in :ids order by p.id")
+    List<ProductView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Полнотекстовый поиск по названиям (английская и русская морфология) и характеристикам.
+     * Использует GIN-индекс по products.search_vector; результаты упорядочены по релевантности.
+     * @param query Строка поиска в синтаксисе websearch_to_tsquery (слова, "фразы", -исключения, or).
+     * @param limit Максимум строк.
+     * @param offset Смещение от начала выдачи.
+     * @return Найденные продукты, самые релевантные первыми.
+     */
+    @Query(value = "SELECT p.id AS \"id\", p.name_en AS \"nameEn\", p.name_ru AS \"nameRu\", "
+            + "p.characteristics AS \"characteristics\", p.weight AS \"weight\", p.size AS \"size\", "
+            + "p.expiry_date AS \"expiryDate\", p.stock_quantity AS \"stockQuantity\", "
+            + "p.low_stock_threshold AS \"lowStockThreshold\", p.category_id AS \"categoryId\", "
+            + "c.name AS \"categoryName\" "
+            + "FROM (SELECT websearch_to_tsquery('english', :query) || websearch_to_tsquery('russian', :query) "
+            + "|| websearch_to_tsquery('simple', :query) AS q) search, "
+            + "products p LEFT JOIN categories c ON c.id = p.category_id "
+            + "WHERE p.search_vector @@ search.q "
+            + "ORDER BY ts_rank_cd(p.search_vector, search.q) DESC, p.id "
+            + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<ProductView> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Keyset-пагинация: следующая порция продуктов с ID больше курсора.
+     * В отличие от OFFSET стоимость запроса не растёт с номером страницы.
+     * @param id Курсор — ID последнего продукта предыдущей страницы.
+     * @param pageable Ограничение размера страницы (сортировка задаётся именем метода).
+     * @return Продукты, упорядоченные по ID.
+     */
+    @Query(PRODUCT_VIEW + "where p.id > :id order by p.id asc")
+    List<ProductView> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset-пагинация назад: продукты с ID меньше курсора, ближайшие к нему первыми.
+     * @param id Курсор — ID первого продукта текущей страницы.
+     * @param pageable Ограничение размера страницы.
+     * @return Продукты, упорядоченные по убыванию ID.
+     */
+    @Query(PRODUCT_VIEW + "where p.id < :id order by p.id desc")
+    List<ProductView> findByIdLessThanOrderByIdDesc(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset-пагинация по товарам, о низком остатке которых последним было опубликовано уведомление
+     * (флаг low_stock_notified). Текущий остаток не сравнивается с порогом: флаг переключается вместе
+     * с публикацией перехода, так что недавно изменённый остаток может ещё не быть отражён.
+     * Обслуживается частичным индексом idx_products_low_stock.
+     * @param id Курсор — ID последнего продукта предыдущей страницы.
+     * @param pageable Ограничение размера страницы.
+     * @return Продукты с опубликованным низким остатком, упорядоченные по ID.
+     */
+    @Query(PRODUCT_VIEW + "where p.lowStockNotified = true and p.id > :id order by p.id asc")
+    List<ProductView> findByLowStockNotifiedTrueAndIdGreaterThanOrderByIdAsc(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Есть ли продукт с ID меньше курсора (предыдущая страница). Проба по первичному ключу:
+     * ORDER BY id LIMIT 1 читает одну запись индекса при любом положении курсора в таблице.
+     * @param id Курсор — ID первого продукта текущей страницы.
+     */
+    @Query(value = "SELECT count(*) > 0 FROM (SELECT 1 FROM products WHERE id < :id ORDER BY id DESC LIMIT 1) probe",
+            nativeQuery = true)
+    boolean existsBefore(@Param("id") Long id);
+
+    /**
+     * Есть ли продукт с ID больше курсора (следующая страница). Проба по первичному ключу, как existsBefore.
+     * @param id Курсор — ID последнего продукта текущей страницы.
+     */
+    @Query(value = "SELECT count(*) > 0 FROM (SELECT 1 FROM products WHERE id > :id ORDER BY id LIMIT 1) probe",
+            nativeQuery = true)
+    boolean existsAfter(@Param("id") Long id);
+
+    /**
+     * Потоковое чтение всего каталога через серверный курсор JDBC.
+     * Должен вызываться внутри транзакции; строки подгружаются порциями по fetch size.
+     * @return Поток продуктов, упорядоченных по ID.
+     */
+    @Query(PRODUCT_VIEW + "order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductView> streamAllOrderById();
+
+    /**
+     * Потоковое чтение названий всех продуктов без загрузки сущностей и категорий.
+     * Должен вызываться внутри транзакции.
+     * @return Поток ID и названий продуктов.
+     */
+    @Query("select p.id as id, p.nameEn as nameEn, p.nameRu as nameRu from Product p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductNameView> streamAllNames();
+
+    /**
+     * Атомарно изменяет остаток на delta одним UPDATE, без чтения сущности.
+     * Условие в WHERE не даёт остатку уйти в минус, поэтому конкурентные списания не теряются,
+     * и выйти за предел INTEGER: сумма проверяется в bigint, и переполнение не попадает в SET.
+     * Вместе с остатком возвращаются эффективный порог и опубликованное состояние,
+     * чтобы без загрузки сущности понять, нужно ли уведомление.
+     * @param id ID продукта.
+     * @param delta Изменение остатка (отрицательное — списание).
+     * @param defaultThreshold Порог низкого остатка по умолчанию.
+     * @return Новое состояние остатка или пусто, если продукта нет, остатка недостаточно
+     *         или новый остаток превысил бы Integer.MAX_VALUE.
+     */
+    @Transactional
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity + :delta, updated_at = now() "
+            + "WHERE id = :id AND CAST(stock_quantity AS bigint) + :delta BETWEEN 0 AND 2147483647 "
+            + "RETURNING stock_quantity AS \"stockQuantity\", "
+            + "COALESCE(low_stock_threshold, "
+            + "(SELECT c.low_stock_threshold FROM categories c WHERE c.id = category_id), "
+            + ":defaultThreshold) AS \"lowStockThreshold\", "
+            + "low_stock_notified AS \"lowStockNotified\"", nativeQuery = true)
+    Optional<StockLevel> adjustStockQuantity(@Param("id") Long id, @Param("delta") int delta,
+                                             @Param("defaultThreshold") int defaultThreshold);
+
+    /**
+     * Атомарно переключает low_stock_notified, если состояние остатка (ниже порога или нет) расходится
+     * с опубликованным. Условие проверяется по текущей версии строки под блокировкой UPDATE, поэтому
+     * конкурентное изменение остатка не приводит ни к пропущенному, ни к ложному переходу,
+     * а остальные колонки не перезаписываются.
+     * @param id ID продукта.
+     * @param defaultThreshold Порог низкого остатка по умолчанию.
+     * @return Состояние остатка после переключения или пусто, если перехода нет.
+     */
+    @Transactional
+    @Query(value = "UPDATE products p SET low_stock_notified = NOT p.low_stock_notified "
+            + "WHERE p.id = :id AND (p.stock_quantity < COALESCE(p.low_stock_threshold, "
+            + "(SELECT c.low_stock_threshold FROM categories c WHERE c.id = p.category_id), :defaultThreshold)) "
+            + "<> p.low_stock_notified "
+            + "RETURNING p.stock_quantity AS \"stockQuantity\", "
+            + "COALESCE(p.low_stock_threshold, "
+            + "(SELECT c.low_stock_threshold FROM categories c WHERE c.id = p.category_id), "
+            + ":defaultThreshold) AS \"lowStockThreshold\", "
+            + "p.low_stock_notified AS \"lowStockNotified\"", nativeQuery = true)
+    Optional<StockLevel> markLowStockTransition(@Param("id") Long id, @Param("defaultThreshold") int defaultThreshold);
+
+    /**
+     * Отмечает и возвращает порцию товаров в наличии со сроком годности в [from, to],
+     * о текущем сроке которых ещё не уведомляли. Диапазон читается по индексу idx_products_expiry_date,
+     * а отметка expiry_alerted_for исключает товар из следующих проходов, пока срок не изменится.
+     * Строки, заблокированные параллельными транзакциями, пропускаются до следующего прохода.
+     * @param from Первый день окна (обычно сегодня).
+     * @param to Последний день окна.
+     * @param limit Максимум товаров в порции.
+     * @return Отмеченные товары.
+     */
+    @Transactional
+    @Query(value = "UPDATE products SET expiry_alerted_for = expiry_date WHERE id IN ("
+            + "SELECT id FROM products WHERE expiry_date BETWEEN :from AND :to AND stock_quantity > 0 "
+            + "AND expiry_alerted_for IS DISTINCT FROM expiry_date "
+            + "ORDER BY expiry_date, id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id AS \"id\", name_en AS \"nameEn\", name_ru AS \"nameRu\", "
+            + "expiry_date AS \"expiryDate\", stock_quantity AS \"stockQuantity\"", nativeQuery = true)
+    List<ExpiringProductView> markExpiringSoon(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                               @Param("limit") int limit);
+
+    /**
+     * Сдвигает updated_at продуктов категории, чтобы сверка низких остатков
+     * перепроверила их после смены порога категории.
+     * @param categoryId ID категории.
+     * @return Количество затронутых продуктов.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET updated_at = now() WHERE category_id = :categoryId", nativeQuery = true)
+    int touchByCategoryId(@Param("categoryId") Long categoryId);
 }
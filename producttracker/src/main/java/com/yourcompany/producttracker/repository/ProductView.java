@@ -0,0 +1,32 @@
+package com.yourcompany.producttracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция продукта для чтения: ровно те колонки, что нужны ProductResponseDto,
+ * включая ID и название категории из одного LEFT JOIN — без загрузки сущностей Product и Category.
+ */
+public interface ProductView {
+
+    Long getId();
+
+    String getNameEn();
+
+    String getNameRu();
+
+    String getCharacteristics();
+
+    Double getWeight();
+
+    String getSize();
+
+    LocalDate getExpiryDate();
+
+    Integer getStockQuantity();
+
+    Integer getLowStockThreshold();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
@@ -0,0 +1,20 @@
+package com.yourcompany.producttracker.repository;
+
+/**
+ * Состояние остатка продукта после атомарного изменения (см. ProductRepository.adjustStockQuantity).
+ */
+public interface StockLevel {
+
+    int getStockQuantity();
+
+    /**
+     * Эффективный порог: продукта, иначе категории, иначе порог по умолчанию.
+     */
+    int getLowStockThreshold();
+
+    boolean isLowStockNotified();
+
+    default boolean isLowStock() {
+        return getStockQuantity() < getLowStockThreshold();
+    }
+}
@@ -2,26 +2,36 @@ package com.yourcompany.producttracker.service;
 
 import com.yourcompany.producttracker.dto.CategoryRequestDto;
 import com.yourcompany.producttracker.dto.CategoryResponseDto;
+import com.yourcompany.producttracker.dto.CategorySummaryDto;
 import com.yourcompany.producttracker.model.Category;
 import com.yourcompany.producttracker.repository.CategoryRepository;
+import com.yourcompany.producttracker.repository.ProductRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+                           ProductService productService) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
     }
 
     public CategoryResponseDto createCategory(CategoryRequestDto categoryRequestDto) {
         Category category = new Category();
         category.setName(categoryRequestDto.getName());
         category.setDescription(categoryRequestDto.getDescription());
+        category.setLowStockThreshold(categoryRequestDto.getLowStockThreshold());
         Category savedCategory = categoryRepository.save(category);
         return convertToDto(savedCategory);
     }
@@ -38,20 +48,48 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Сводка остатков по категориям. Агрегаты считаются в БД одним проходом по товарам,
+     * поэтому объём ответа зависит от числа категорий, а не товаров.
+     * @return Сводка по каждой категории.
+     */
+    public List<CategorySummaryDto> getCategorySummary() {
+        return categoryRepository.summarize(productService.getDefaultLowStockThreshold()).stream()
+                .map(view -> new CategorySummaryDto(view.getCategoryId(), view.getCategoryName(),
+                        view.getProductCount(), view.getTotalStock(), view.getLowStockCount(), view.getNearestExpiry()))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public CategoryResponseDto updateCategory(Long id, CategoryRequestDto categoryRequestDto) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+        boolean nameChanged = !Objects.equals(category.getName(), categoryRequestDto.getName());
         category.setName(categoryRequestDto.getName());
         category.setDescription(categoryRequestDto.getDescription());
+        boolean thresholdChanged = !Objects.equals(category.getLowStockThreshold(), categoryRequestDto.getLowStockThreshold());
+        category.setLowStockThreshold(categoryRequestDto.getLowStockThreshold());
         Category updatedCategory = categoryRepository.save(category);
+        if (thresholdChanged) {
+            // Эффективный порог продуктов категории изменился: сдвигаем их updated_at,
+            // чтобы инкрементальная сверка низких остатков их перепроверила
+            productRepository.touchByCategoryId(id);
+        }
+        if (nameChanged) {
+            // Название категории входит в события product-changes и денормализовано в закэшированные ProductResponseDto
+            productService.publishCategoryChanges(id);
+            productService.evictAllCachedAfterCommit();
+        }
         return convertToDto(updatedCategory);
     }
 
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        productService.evictAllCachedAfterCommit();
     }
 
     private CategoryResponseDto convertToDto(Category category) {
-        return new CategoryResponseDto(category.getId(), category.getName(), category.getDescription());
+        return new CategoryResponseDto(category.getId(), category.getName(), category.getDescription(),
+                category.getLowStockThreshold());
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.yourcompany.producttracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбор одной строки CSV (RFC 4180): разделитель — запятая, поля могут быть в двойных кавычках,
+ * кавычка внутри поля экранируется удвоением. Перевод строки внутри поля не поддерживается,
+ * так как импорт читает вход построчно.
+ */
+final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
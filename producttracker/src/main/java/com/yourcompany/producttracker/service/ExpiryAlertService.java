@@ -0,0 +1,97 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.config.KafkaConfig;
+import com.yourcompany.producttracker.dto.ExpiringProductDto;
+import com.yourcompany.producttracker.dto.ExpiryEventDto;
+import com.yourcompany.producttracker.repository.ExpiringProductView;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Уведомления об истечении срока годности.
+ * Плановый проход находит товары, срок которых наступает в ближайшие window-days дней,
+ * и публикует каждый товар один раз — при входе в окно (или после смены срока).
+ * Товары отмечаются и ставятся в outbox в одной транзакции порциями по batch-size,
+ * события группируются по дню истечения.
+ */
+@Service
+@Slf4j
+public class ExpiryAlertService {
+
+    private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int windowDays;
+    private final int batchSize;
+
+    public ExpiryAlertService(ProductRepository productRepository,
+                              OutboxService outboxService,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${expiry.alert.window-days:7}") int windowDays,
+                              @Value("${expiry.alert.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowDays = windowDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${expiry.alert.cron:0 0 * * * *}")
+    public void scanExpiringProducts() {
+        int published = scan(LocalDate.now());
+        if (published > 0) {
+            log.info("Queued expiry alerts for {} products expiring within {} days", published, windowDays);
+        }
+    }
+
+    /**
+     * Публикует все товары, вошедшие в окно [today, today + windowDays] с прошлого прохода.
+     * @param today Первый день окна.
+     * @return Количество опубликованных товаров.
+     */
+    int scan(LocalDate today) {
+        int total = 0;
+        int published;
+        do {
+            // Каждая порция — своя транзакция: первый проход по большому каталогу не держит длинную транзакцию
+            published = transactionTemplate.execute(status -> publishBatch(today));
+            total += published;
+        } while (published >= batchSize);
+        return total;
+    }
+
+    private int publishBatch(LocalDate today) {
+        List<ExpiringProductView> products = productRepository.markExpiringSoon(today, today.plusDays(windowDays), batchSize);
+        Map<LocalDate, List<ExpiringProductDto>> byDay = products.stream()
+                .collect(Collectors.groupingBy(ExpiringProductView::getExpiryDate, TreeMap::new,
+                        Collectors.mapping(product -> new ExpiringProductDto(product.getId(), product.getNameEn(),
+                                product.getNameRu(), product.getStockQuantity()), Collectors.toList())));
+        byDay.forEach((day, items) -> {
+            ExpiryEventDto event = new ExpiryEventDto(day, (int) ChronoUnit.DAYS.between(today, day), items);
+            try {
+                outboxService.enqueue(KafkaConfig.EXPIRY_TOPIC, day.toString(), objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                // Откатываем порцию: отметки expiry_alerted_for не должны сохраниться без события
+                throw new IllegalStateException("Error serializing expiry event for " + day, e);
+            }
+        });
+        return products.size();
+    }
+}
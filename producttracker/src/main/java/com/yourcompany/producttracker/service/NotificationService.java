@@ -1,60 +1,72 @@
 package com.yourcompany.producttracker.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.yourcompany.producttracker.model.Product;
 import com.yourcompany.producttracker.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 /**
  * Сервис для отправки уведомлений в Kafka.
- * Использует планировщик Spring для периодической проверки запасов.
+ * Уведомления о низком остатке отправляются при записи продукта только в момент перехода через порог
+ * (см. ProductService.checkStockAndSendNotification). Плановая проверка здесь — лишь дешёвая сверка:
+ * она просматривает продукты, изменённые после предыдущего прохода, и досылает пропущенные переходы.
+ * Водяной знак хранится в таблице low_stock_sweep и берётся по часам БД, как и updated_at продуктов,
+ * поэтому рестарт не вызывает полного прохода, а расхождение часов JVM и БД не теряет изменения.
+ * Сообщения не отправляются напрямую, а ставятся в outbox и публикуются OutboxRelay.
  */
 @Service
 @Slf4j
 public class NotificationService {
 
-    private static final String LOW_STOCK_TOPIC = "low-stock-notifications";
+    // Запас на транзакции, начавшиеся до предыдущей сверки, но зафиксированные после неё
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+
+    // Блокировка строки водяного знака до конца транзакции: сверки разных экземпляров не пересекаются
+    static final String LOCK_WATERMARK_SQL = "SELECT started_at FROM low_stock_sweep WHERE id = 1 FOR UPDATE";
+
+    // now() — время начала транзакции сверки по часам БД
+    static final String ADVANCE_WATERMARK_SQL = "UPDATE low_stock_sweep SET started_at = now() WHERE id = 1";
 
     private final ProductRepository productRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
 
     public NotificationService(ProductRepository productRepository,
-                               KafkaTemplate<String, String> kafkaTemplate,
-                               ObjectMapper objectMapper) {
+                               ProductService productService,
+                               JdbcTemplate jdbcTemplate) {
         this.productRepository = productRepository;
-        this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
-    @Value("${low.stock.threshold}")
-    private int lowStockThreshold;
-
     /**
      * Метод, который выполняется по расписанию.
-     * Ищет товары с низким остатком и отправляет информацию о каждом в топик Kafka.
+     * Находит продукты, изменённые с прошлой сверки, чьё состояние остатка не совпадает
+     * с последним опубликованным, и ставит уведомления о переходе в outbox.
      */
     @Scheduled(cron = "0 */5 * * * *")
+    @Transactional
+    @Timed(value = "notification.reconciliation", histogram = true)
     public void checkLowStockAndNotify() {
-        List<Product> lowStockProducts = productRepository.findByStockQuantityLessThan(lowStockThreshold);
-
-        if (!lowStockProducts.isEmpty()) {
-            log.info("Found {} products with low stock. Sending to Kafka topic '{}'...", lowStockProducts.size(), LOW_STOCK_TOPIC);
-            for (Product product : lowStockProducts) {
-                try {
-                    String productJson = objectMapper.writeValueAsString(product);
-                    kafkaTemplate.send(LOW_STOCK_TOPIC, product.getId().toString(), productJson);
-                } catch (JsonProcessingException e) {
-                    log.error("Error serializing product with ID {} to JSON", product.getId(), e);
-                }
-            }
+        Instant since = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, OffsetDateTime.class)
+                .toInstant()
+                .minus(WATERMARK_OVERLAP);
+
+        List<Long> transitions = productRepository.findLowStockTransitionsSince(since,
+                productService.getDefaultLowStockThreshold());
+        if (!transitions.isEmpty()) {
+            log.info("Reconciliation found {} products with unpublished stock transitions", transitions.size());
+            // Остаток мог измениться после чтения: переход перепроверяется по текущей строке
+            transitions.forEach(productService::publishStockTransition);
         }
+        jdbcTemplate.update(ADVANCE_WATERMARK_SQL);
     }
 }
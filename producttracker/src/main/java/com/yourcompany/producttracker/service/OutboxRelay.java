@@ -0,0 +1,249 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.model.OutboxEvent;
+import com.yourcompany.producttracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая публикация событий из outbox в Kafka.
+ * События отправляются порциями в порядке id; из outbox удаляется только подтверждённый брокером
+ * непрерывный префикс порции, остальное будет отправлено повторно (at-least-once).
+ * Публикация каждого события — span в трейсе запроса, записавшего событие (traceparent из outbox); он начинается
+ * в момент записи в outbox, так что в трейсе видно и ожидание в outbox, и отправку. Span отправки KafkaTemplate
+ * вложен в него и передаёт контекст консьюмеру в заголовках записи.
+ * <p>
+ * Запросы API в Kafka не пишут, поэтому недоступность брокера их не задерживает: события копятся в outbox.
+ * После неудачной отправки relay откладывает следующий проход (экспоненциально, до max-backoff-ms)
+ * и проверяет брокер одним событием; полные порции возобновляются после его подтверждения.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    // Произвольная константа для pg_try_advisory_xact_lock, общая для всех экземпляров сервиса
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long lagWarnMs;
+    private final long intervalMs;
+    private final long maxBackoffMs;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong publishedCount = new AtomicLong();
+
+    // Проходы relay выполняются последовательно одним потоком планировщика
+    private int consecutiveFailures;
+    private long retryAtNanos;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.lag-warn-ms:60000}") long lagWarnMs,
+                       @Value("${outbox.relay.interval-ms:500}") long intervalMs,
+                       @Value("${outbox.relay.max-backoff-ms:30000}") long maxBackoffMs,
+                       MeterRegistry meterRegistry,
+                       Tracer tracer,
+                       Propagator propagator) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.lagWarnMs = lagWarnMs;
+        this.intervalMs = intervalMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.propagator = propagator;
+        TimeGauge.builder("outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+                .description("Age of the oldest pending outbox event")
+                .register(meterRegistry);
+        FunctionCounter.builder("outbox.relay.published", publishedCount, AtomicLong::doubleValue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Разбирает outbox, пока порции полные и отправка успешна. Во время паузы после ошибки только обновляет отставание.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        if (consecutiveFailures > 0 && System.nanoTime() - retryAtNanos < 0) {
+            updateLag();
+            return;
+        }
+        int published;
+        do {
+            Integer result = transactionTemplate.execute(status -> publishNextBatch());
+            published = result != null ? result : 0;
+        } while (published == batchSize);
+        updateLag();
+    }
+
+    /**
+     * @return Сколько событий опубликовано и удалено из outbox; -1, если outbox разбирает другой экземпляр.
+     */
+    int publishNextBatch() {
+        if (!outboxEventRepository.tryAcquireRelayLock(RELAY_LOCK_ID)) {
+            return -1;
+        }
+        // Пока брокер не подтвердил отправку после ошибки, не наполняем буфер продюсера целой порцией
+        int limit = consecutiveFailures > 0 ? 1 : batchSize;
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, limit));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Отправляем всю порцию сразу, а ждём подтверждений по порядку: так порядок сохраняется,
+        // а задержка брокера оплачивается один раз на порцию, а не на каждое событие
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            long sentAt = System.nanoTime();
+            Span span = publishSpan(event);
+            CompletableFuture<SendResult<String, String>> future;
+            boolean rejected = false;
+            try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+                future = kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload());
+            } catch (RuntimeException e) {
+                // Например, нет метаданных топика дольше max.block.ms
+                future = CompletableFuture.failedFuture(e);
+                rejected = true;
+            }
+            futures.add(future.whenComplete((result, error) -> {
+                recordSend(event.getTopic(), sentAt, error);
+                if (error != null) {
+                    span.error(error);
+                }
+                span.end();
+            }));
+            if (rejected) {
+                // Следующие send заблокировались бы на max.block.ms каждый, удерживая транзакцию и блокировку relay:
+                // ждём только уже отправленные события, остальные останутся в outbox
+                break;
+            }
+        }
+
+        List<Long> publishedIds = new ArrayList<>(futures.size());
+        boolean failed = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                publishedIds.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed = true;
+                break;
+            } catch (Exception e) {
+                log.warn("Failed to publish outbox event {} to topic '{}', will retry: {}",
+                        batch.get(i).getId(), batch.get(i).getTopic(), e.getMessage());
+                // Включая таймаут ожидания подтверждения, который не попадает в outbox.relay.send
+                Counter.builder("outbox.relay.failures")
+                        .tag("topic", batch.get(i).getTopic())
+                        .register(meterRegistry)
+                        .increment();
+                failed = true;
+                break;
+            }
+        }
+        if (failed) {
+            backOff();
+        } else if (consecutiveFailures > 0) {
+            log.info("Kafka is reachable again after {} failed outbox relay attempts, resuming full batches",
+                    consecutiveFailures);
+            consecutiveFailures = 0;
+        }
+
+        if (!publishedIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(publishedIds);
+            publishedCount.addAndGet(publishedIds.size());
+        }
+        return publishedIds.size();
+    }
+
+    private void backOff() {
+        consecutiveFailures++;
+        long backoffMs = Math.min(maxBackoffMs, intervalMs << Math.min(consecutiveFailures - 1, 16));
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        log.warn("Outbox relay attempt {} failed, next attempt in {} ms", consecutiveFailures, backoffMs);
+    }
+
+    private Span publishSpan(OutboxEvent event) {
+        Span.Builder builder = event.getTraceParent() != null
+                ? propagator.extract(Map.of(OutboxService.TRACEPARENT, event.getTraceParent()), Map::get)
+                : tracer.spanBuilder();
+        return builder.name("outbox publish")
+                .tag("messaging.destination.name", event.getTopic())
+                .startTimestamp(event.getCreatedAt().toEpochMilli(), TimeUnit.MILLISECONDS)
+                .start();
+    }
+
+    /**
+     * Время от send до подтверждения брокера (или ошибки) по топику.
+     */
+    private void recordSend(String topic, long sentAt, Throwable error) {
+        Timer.builder("outbox.relay.send")
+                .tag("topic", topic)
+                .tag("result", error == null ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void updateLag() {
+        long lag = outboxEventRepository.findFirstByOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L);
+        lagMillis.set(lag);
+        if (lag > lagWarnMs) {
+            log.warn("Outbox relay is lagging: oldest pending event is {} ms old", lag);
+        }
+    }
+
+    /**
+     * Возраст самого старого неотправленного события на момент последнего прохода, мс.
+     */
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    /**
+     * Общее число опубликованных событий с момента запуска.
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+}
@@ -0,0 +1,110 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись событий в outbox. Вызывается только внутри транзакции, изменяющей данные:
+ * событие фиксируется или откатывается вместе с ними.
+ * Вместе с событием сохраняется traceparent текущего span'а, чтобы OutboxRelay продолжил трейс запроса.
+ * <p>
+ * События транзакции копятся в памяти и вставляются одним JDBC-батчем перед фиксацией. ID выдаёт
+ * DEFAULT nextval('outbox_events_seq') при вставке, пока транзакция ещё держит блокировки строк продуктов,
+ * поэтому события одного продукта упорядочены по фиксации, а лишнего запроса nextval на событие нет.
+ */
+@Service
+public class OutboxService {
+
+    static final String TRACEPARENT = "traceparent";
+
+    // id не указывается: его выдаёт DEFAULT последовательности в момент вставки
+    private static final String INSERT_SQL = "INSERT INTO outbox_events (topic, message_key, payload, created_at, "
+            + "traceparent) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                         Tracer tracer, Propagator propagator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @param payload Тело сообщения; null публикуется как tombstone (удаление ключа из компактируемого топика).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, String payload) {
+        pendingEvents().add(new OutboxEvent(null, topic, key, payload, Instant.now(), currentTraceParent()));
+        Counter.builder("outbox.events.enqueued")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Буфер событий текущей транзакции; при первом событии регистрирует их вставку перед фиксацией.
+     * Буфер хранится в синхронизации транзакции, поэтому у вложенной REQUIRES_NEW-транзакции он свой.
+     */
+    private List<OutboxEvent> pendingEvents() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending) {
+                return pending.events;
+            }
+        }
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.events;
+    }
+
+    private void insert(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getTopic());
+            statement.setString(2, event.getMessageKey());
+            statement.setString(3, event.getPayload());
+            statement.setObject(4, event.getCreatedAt().atOffset(ZoneOffset.UTC));
+            statement.setString(5, event.getTraceParent());
+        });
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(events);
+        }
+    }
+
+    private String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        Map<String, String> carrier = new HashMap<>(4);
+        propagator.inject(span.context(), carrier, Map::put);
+        return carrier.get(TRACEPARENT);
+    }
+}
@@ -0,0 +1,260 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.dto.ImportRowErrorDto;
+import com.yourcompany.producttracker.dto.ProductImportResultDto;
+import com.yourcompany.producttracker.dto.ProductRequestDto;
+import com.yourcompany.producttracker.model.Category;
+import com.yourcompany.producttracker.model.Product;
+import com.yourcompany.producttracker.repository.CategoryRepository;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт продуктов из CSV или NDJSON.
+ * Вход читается построчно, строки копятся в батчи; на каждый батч категории загружаются
+ * одним запросом, а продукты пишутся одной транзакцией через JDBC-батчинг Hibernate.
+ * Если транзакция батча откатилась (например, из-за ограничения БД), батч повторяется по половинам,
+ * так что в отчёт попадают только ошибочные строки.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("nameEn", "nameRu", "stockQuantity");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductService productService;
+    private final ProductNameIndex productNameIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                CategoryRepository categoryRepository,
+                                ProductService productService,
+                                ProductNameIndex productNameIndex,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productService = productService;
+        this.productNameIndex = productNameIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортирует продукты из потока. Ошибочные строки пропускаются и попадают в отчёт,
+     * остальные сохраняются.
+     * @param input Тело запроса; для CSV первая непустая строка — заголовок с именами полей ProductRequestDto.
+     * @param format Формат входа.
+     * @return Отчёт об импорте.
+     * @throws IllegalArgumentException если заголовок CSV не содержит обязательных колонок.
+     */
+    public ProductImportResultDto importProducts(InputStream input, Format format) throws IOException {
+        long startNanos = System.nanoTime();
+        ProductImportResultDto result = new ProductImportResultDto();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvHeader(line);
+                    continue;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    ProductRequestDto dto = format == Format.CSV
+                            ? parseCsvRow(line, header)
+                            : objectMapper.readValue(line, ProductRequestDto.class);
+                    String violations = validate(dto);
+                    if (violations != null) {
+                        reject(result, lineNumber, violations);
+                        continue;
+                    }
+                    batch.add(new ImportRow(lineNumber, dto));
+                } catch (JsonProcessingException e) {
+                    reject(result, lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    reject(result, lineNumber, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    saveBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, result);
+        }
+
+        result.setDurationMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Product import finished: {} rows, {} imported, {} failed in {} ms",
+                result.getTotalRows(), result.getImported(), result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    private void saveBatch(List<ImportRow> batch, ProductImportResultDto result) {
+        Set<Long> categoryIds = batch.stream()
+                .map(row -> row.dto().getCategoryId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<ImportRowErrorDto> rejected = new ArrayList<>();
+        List<Product> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                Map<Long, Category> categories = categoryIds.isEmpty()
+                        ? Map.of()
+                        : categoryRepository.findAllById(categoryIds).stream()
+                                .collect(Collectors.toMap(Category::getId, Function.identity()));
+                List<Product> products = new ArrayList<>(batch.size());
+                for (ImportRow row : batch) {
+                    Long categoryId = row.dto().getCategoryId();
+                    Category category = categoryId != null ? categories.get(categoryId) : null;
+                    if (categoryId != null && category == null) {
+                        rejected.add(new ImportRowErrorDto(row.line(), "Категория не найдена: " + categoryId));
+                        continue;
+                    }
+                    products.add(productService.toEntity(row.dto(), category));
+                }
+                List<Product> persisted = productRepository.saveAll(products);
+                persisted.forEach(product -> {
+                    productService.checkStockAndSendNotification(product);
+                    productService.publishChange(productService.toDto(product));
+                });
+                // Сбрасываем батч INSERT-ов и очищаем контекст, чтобы память не росла от батча к батчу
+                entityManager.flush();
+                entityManager.clear();
+                return persisted;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Транзакция откатилась целиком: делим батч пополам, пока ошибка не сведётся к отдельным строкам,
+                // остальные строки сохраняются. Цена — O(k log n) лишних транзакций на k ошибочных строк
+                log.warn("Failed to import batch of {} products, retrying in halves: {}", batch.size(), e.getMessage());
+                int middle = batch.size() / 2;
+                saveBatch(batch.subList(0, middle), result);
+                saveBatch(batch.subList(middle, batch.size()), result);
+                return;
+            }
+            log.error("Failed to import product at line {}", batch.get(0).line(), e);
+            reject(result, batch.get(0).line(),
+                    "Ошибка записи в БД: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return;
+        }
+
+        rejected.forEach(error -> reject(result, error.getLine(), error.getMessage()));
+        result.setImported(result.getImported() + saved.size());
+        // Батч зафиксирован — новые продукты становятся доступны автодополнению
+        saved.forEach(product -> productNameIndex.index(product.getId(), product.getNameEn(), product.getNameRu()));
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = CsvLineParser.parse(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("В заголовке CSV отсутствует колонка " + required);
+            }
+        }
+        return header;
+    }
+
+    private ProductRequestDto parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> fields = CsvLineParser.parse(line);
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setNameEn(field(fields, header, "nameEn"));
+        dto.setNameRu(field(fields, header, "nameRu"));
+        dto.setCharacteristics(field(fields, header, "characteristics"));
+        String weight = field(fields, header, "weight");
+        dto.setWeight(weight != null ? Double.valueOf(weight) : null);
+        dto.setSize(field(fields, header, "size"));
+        String expiryDate = field(fields, header, "expiryDate");
+        dto.setExpiryDate(expiryDate != null ? LocalDate.parse(expiryDate) : null);
+        String stockQuantity = field(fields, header, "stockQuantity");
+        dto.setStockQuantity(stockQuantity != null ? Integer.valueOf(stockQuantity) : null);
+        String categoryId = field(fields, header, "categoryId");
+        dto.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+        String lowStockThreshold = field(fields, header, "lowStockThreshold");
+        dto.setLowStockThreshold(lowStockThreshold != null ? Integer.valueOf(lowStockThreshold) : null);
+        return dto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String validate(ProductRequestDto dto) {
+        Set<ConstraintViolation<ProductRequestDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void reject(ProductImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportRowErrorDto(line, message));
+        }
+    }
+
+    private record ImportRow(long line, ProductRequestDto dto) {
+    }
+}
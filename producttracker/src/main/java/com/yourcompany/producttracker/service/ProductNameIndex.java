@@ -0,0 +1,227 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.dto.ProductSuggestionDto;
+import com.yourcompany.producttracker.dto.SuggestIndexStatsDto;
+import com.yourcompany.producttracker.repository.ProductNameView;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Индекс автодополнения по названиям продуктов, целиком в памяти.
+ * Термины (название целиком и каждое его слово, в нижнем регистре) лежат в отсортированном множестве,
+ * поэтому поиск по префиксу — это просмотр диапазона ключей без обращения к БД.
+ * Строится при старте из ProductRepository и поддерживается ProductService при записи продуктов.
+ */
+@Component
+@Slf4j
+public class ProductNameIndex {
+
+    static final int MAX_LIMIT = 50;
+
+    // Разделитель термина и ID в ключе: он меньше любого символа названия, поэтому ключи
+    // одного термина идут подряд, а диапазон префикса не захватывает лишнего
+    private static final char ID_SEPARATOR = '\u0000';
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Приближённые размеры объектов на 64-битной JVM со сжатыми указателями
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int SKIP_LIST_ENTRY_BYTES = 48;
+    private static final int PRODUCT_ENTRY_BYTES = 80;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    // Изменения, пришедшие во время перестроения: применяются к новому снимку перед подменой
+    private List<Consumer<Snapshot>> pendingDuringRebuild;
+    private volatile long lastRebuildMillis;
+    private volatile Instant lastRebuiltAt;
+
+    public ProductNameIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Полностью перестраивает индекс из БД. Запросы автодополнения во время перестроения
+     * обслуживаются старым снимком.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                log.warn("Product name index rebuild is already in progress");
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long startNanos = System.nanoTime();
+        Snapshot fresh = new Snapshot();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductNameView> names = productRepository.streamAllNames()) {
+                    names.forEach(view -> fresh.put(view.getId(), view.getNameEn(), view.getNameRu()));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingDuringRebuild.forEach(change -> change.accept(fresh));
+            pendingDuringRebuild = null;
+            snapshot = fresh;
+        }
+        lastRebuildMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        lastRebuiltAt = Instant.now();
+        log.info("Product name index rebuilt: {} products, {} terms, ~{} KB in {} ms",
+                fresh.names.size(), fresh.terms.size(), fresh.estimatedMemoryBytes() / 1024, lastRebuildMillis);
+    }
+
+    /**
+     * Добавляет продукт в индекс или заменяет его названия.
+     */
+    public synchronized void index(Long id, String nameEn, String nameRu) {
+        apply(target -> target.put(id, nameEn, nameRu));
+    }
+
+    public synchronized void remove(Long id) {
+        apply(target -> target.remove(id));
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(change);
+        }
+    }
+
+    /**
+     * Продукты, у которых название или одно из его слов начинается с prefix (без учёта регистра).
+     * @param prefix Введённый пользователем текст.
+     * @param limit Максимум подсказок, не больше MAX_LIMIT.
+     * @return Подсказки в алфавитном порядке совпавших терминов.
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String term = normalize(prefix);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Snapshot current = snapshot;
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String key : current.terms.subSet(term, true, term + Character.MAX_VALUE, true)) {
+            ids.add(Long.valueOf(key.substring(key.lastIndexOf(ID_SEPARATOR) + 1)));
+            if (ids.size() == max) {
+                break;
+            }
+        }
+        List<ProductSuggestionDto> suggestions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Names names = current.names.get(id);
+            if (names != null) {
+                suggestions.add(new ProductSuggestionDto(id, names.nameEn(), names.nameRu()));
+            }
+        }
+        return suggestions;
+    }
+
+    public SuggestIndexStatsDto getStats() {
+        Snapshot current = snapshot;
+        return new SuggestIndexStatsDto(current.names.size(), current.terms.size(),
+                current.estimatedMemoryBytes(), lastRebuildMillis, lastRebuiltAt);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private static Set<String> terms(Names names) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String name : new String[]{names.nameEn(), names.nameRu()}) {
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            terms.add(normalized);
+            for (String word : WORD_SEPARATOR.split(normalized)) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private record Names(String nameEn, String nameRu) {
+    }
+
+    private static final class Snapshot {
+        private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+        private final Map<Long, Names> names = new ConcurrentHashMap<>();
+        private final AtomicLong termChars = new AtomicLong();
+        private final AtomicLong nameChars = new AtomicLong();
+
+        void put(Long id, String nameEn, String nameRu) {
+            remove(id);
+            Names entry = new Names(nameEn, nameRu);
+            names.put(id, entry);
+            nameChars.addAndGet(length(nameEn) + length(nameRu));
+            for (String term : terms(entry)) {
+                String key = term + ID_SEPARATOR + id;
+                terms.add(key);
+                termChars.addAndGet(key.length());
+            }
+        }
+
+        void remove(Long id) {
+            Names previous = names.remove(id);
+            if (previous == null) {
+                return;
+            }
+            nameChars.addAndGet(-(length(previous.nameEn()) + length(previous.nameRu())));
+            for (String term : terms(previous)) {
+                String key = term + ID_SEPARATOR + id;
+                if (terms.remove(key)) {
+                    termChars.addAndGet(-key.length());
+                }
+            }
+        }
+
+        long estimatedMemoryBytes() {
+            // Символы считаются по 2 байта: русские названия хранятся в UTF-16
+            return (long) terms.size() * (SKIP_LIST_ENTRY_BYTES + STRING_OVERHEAD_BYTES) + termChars.get() * 2
+                    + (long) names.size() * (PRODUCT_ENTRY_BYTES + 2 * STRING_OVERHEAD_BYTES) + nameChars.get() * 2;
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+}
@@ -2,38 +2,68 @@ package com.yourcompany.producttracker.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.config.CacheConfig;
+import com.yourcompany.producttracker.config.KafkaConfig;
+import com.yourcompany.producttracker.dto.LowStockEventDto;
+import com.yourcompany.producttracker.dto.ProductPageDto;
 import com.yourcompany.producttracker.dto.ProductRequestDto;
 import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.dto.ProductSearchPageDto;
+import com.yourcompany.producttracker.dto.ProductSuggestionDto;
+import com.yourcompany.producttracker.model.Category;
 import com.yourcompany.producttracker.model.Product;
 import com.yourcompany.producttracker.repository.ProductRepository;
 import com.yourcompany.producttracker.repository.CategoryRepository;
+import com.yourcompany.producttracker.repository.ProductView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ProductService {
 
-    private static final int LOW_STOCK_THRESHOLD = 10;
-    private static final String LOW_STOCK_TOPIC = "low-stock-notifications";
+    private static final int MAX_PAGE_SIZE = 500;
+    // Таймер публичных операций (тег operation); вызовы изнутри сервиса через прокси не идут и не учитываются
+    private static final String OPERATIONS_METRIC = "product.service.operations";
 
     // Внедрение зависимости ProductRepository через конструктор
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxService outboxService;
     private final ObjectMapper objectMapper;
+    private final ProductNameIndex productNameIndex;
+    private final CacheManager cacheManager;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
+    // Порог для продуктов, у которых он не задан ни на продукте, ни на категории
+    @Value("${low.stock.threshold:10}")
+    private int defaultLowStockThreshold;
+
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, OutboxService outboxService,
+                          ObjectMapper objectMapper, ProductNameIndex productNameIndex, CacheManager cacheManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxService = outboxService;
         this.objectMapper = objectMapper;
+        this.productNameIndex = productNameIndex;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -42,6 +72,21 @@ public class ProductService {
      * @return Сущность Product.
      */
     public Product toEntity(ProductRequestDto dto) {
+        Category category = null;
+        if (dto.getCategoryId() != null) {
+            category = categoryRepository.findById(dto.getCategoryId()).orElse(null);
+        }
+        return toEntity(dto, category);
+    }
+
+    /**
+     * Преобразует ProductRequestDto в сущность Product с уже загруженной категорией.
+     * Используется массовым импортом, который загружает категории один раз на батч.
+     * @param dto ProductRequestDto с данными для создания.
+     * @param category Категория продукта или null.
+     * @return Сущность Product.
+     */
+    public Product toEntity(ProductRequestDto dto, Category category) {
         Product product = new Product();
         product.setNameEn(dto.getNameEn());
         product.setNameRu(dto.getNameRu());
@@ -50,9 +95,8 @@ public class ProductService {
         product.setSize(dto.getSize());
         product.setExpiryDate(dto.getExpiryDate());
         product.setStockQuantity(dto.getStockQuantity());
-        if (dto.getCategoryId() != null) {
-            categoryRepository.findById(dto.getCategoryId()).ifPresent(product::setCategory);
-        }
+        product.setLowStockThreshold(dto.getLowStockThreshold());
+        product.setCategory(category);
         return product;
     }
 
@@ -71,6 +115,7 @@ public class ProductService {
         dto.setSize(product.getSize());
         dto.setExpiryDate(product.getExpiryDate());
         dto.setStockQuantity(product.getStockQuantity());
+        dto.setLowStockThreshold(product.getLowStockThreshold());
         if (product.getCategory() != null) {
             dto.setCategoryId(product.getCategory().getId());
             dto.setCategoryName(product.getCategory().getName());
@@ -78,29 +123,133 @@ public class ProductService {
         return dto;
     }
 
-    // Получить все продукты
-    public List<ProductResponseDto> getAllProducts() {
-        return productRepository.findAll().stream()
+    /**
+     * Преобразует проекцию ProductView в ProductResponseDto.
+     * Используется всеми запросами чтения, которые не загружают сущности.
+     * @param view Проекция продукта с данными категории.
+     * @return ProductResponseDto.
+     */
+    public ProductResponseDto toDto(ProductView view) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.setId(view.getId());
+        dto.setNameEn(view.getNameEn());
+        dto.setNameRu(view.getNameRu());
+        dto.setCharacteristics(view.getCharacteristics());
+        dto.setWeight(view.getWeight());
+        dto.setSize(view.getSize());
+        dto.setExpiryDate(view.getExpiryDate());
+        dto.setStockQuantity(view.getStockQuantity());
+        dto.setLowStockThreshold(view.getLowStockThreshold());
+        dto.setCategoryId(view.getCategoryId());
+        dto.setCategoryName(view.getCategoryName());
+        return dto;
+    }
+
+    /**
+     * Возвращает страницу продуктов после afterId либо, если задан beforeId, страницу перед ним.
+     * @param afterId ID последнего продукта предыдущей страницы, null — с начала.
+     * @param beforeId ID первого продукта следующей страницы (переход назад); имеет приоритет над afterId.
+     * @param size Желаемый размер страницы, ограничивается MAX_PAGE_SIZE.
+     * @return Страница продуктов, упорядоченных по ID, и курсоры соседних страниц.
+     */
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "page"}, histogram = true)
+    public ProductPageDto getProductsPage(Long afterId, Long beforeId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Запрашиваем на одну строку больше, чтобы без COUNT понять, есть ли страница в направлении движения
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        if (beforeId != null) {
+            List<ProductView> products = productRepository.findByIdLessThanOrderByIdDesc(beforeId, limit);
+            boolean hasPrev = products.size() > pageSize;
+            List<ProductResponseDto> items = products.stream()
+                    .limit(pageSize)
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+            Collections.reverse(items);
+            if (items.isEmpty()) {
+                return new ProductPageDto(items, null, null);
+            }
+            Long lastId = items.get(items.size() - 1).getId();
+            return new ProductPageDto(items,
+                    productRepository.existsAfter(lastId) ? lastId : null,
+                    hasPrev ? items.get(0).getId() : null);
+        }
+
+        List<ProductView> products = productRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, limit);
+        boolean hasNext = products.size() > pageSize;
+        List<ProductResponseDto> items = products.stream()
+                .limit(pageSize)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        if (items.isEmpty()) {
+            return new ProductPageDto(items, null, null);
+        }
+        Long firstId = items.get(0).getId();
+        // С первой страницы назад идти некуда — лишний запрос не нужен
+        boolean hasPrev = afterId != null && productRepository.existsBefore(firstId);
+        return new ProductPageDto(items,
+                hasNext ? items.get(items.size() - 1).getId() : null,
+                hasPrev ? firstId : null);
+    }
+
+    /**
+     * Страница товаров, остаток которых сейчас ниже порога (по последнему опубликованному состоянию).
+     * @param afterId ID последнего продукта предыдущей страницы, null — с начала.
+     * @param size Желаемый размер страницы, ограничивается MAX_PAGE_SIZE.
+     * @return Страница продуктов и курсор следующей страницы.
+     */
+    public ProductPageDto getLowStockProductsPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<ProductView> products = productRepository.findByLowStockNotifiedTrueAndIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = products.size() > pageSize;
+        List<ProductResponseDto> items = products.stream()
+                .limit(pageSize)
                 .map(this::toDto)
                 .collect(Collectors.toList());
+        return new ProductPageDto(items, hasNext ? items.get(items.size() - 1).getId() : null, null);
+    }
+
+    /**
+     * Последовательно передаёт все продукты в action, не собирая их в память.
+     * Строки читаются проекцией, которая не попадает в persistence context,
+     * поэтому потребление памяти не зависит от размера каталога.
+     * @param action Обработчик очередного продукта (например, запись в поток ответа).
+     */
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<ProductResponseDto> action) {
+        try (Stream<ProductView> products = productRepository.streamAllOrderById()) {
+            products.forEach(product -> action.accept(toDto(product)));
+        }
     }
 
-    // Получить продукт по ID
+    // Получить продукт по ID (read-through кэш; отсутствующие продукты не кэшируются)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id", unless = "#result == null")
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "read"}, histogram = true)
     public Optional<ProductResponseDto> getProductById(Long id) {
-        return productRepository.findById(id).map(this::toDto);
+        return productRepository.findViewById(id).map(this::toDto);
     }
 
     // Создать новый продукт
+    @Transactional
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "create"}, histogram = true)
     public ProductResponseDto createProduct(ProductRequestDto productDto) {
         Product product = toEntity(productDto);
         Product savedProduct = productRepository.save(product);
         checkStockAndSendNotification(savedProduct);
-        return toDto(savedProduct);
+        ProductResponseDto dto = toDto(savedProduct);
+        publishChange(dto);
+        afterCommit(() -> productNameIndex.index(savedProduct.getId(), savedProduct.getNameEn(), savedProduct.getNameRu()));
+        cacheAfterCommit(cache -> cache.put(dto.getId(), dto));
+        return dto;
     }
 
     // Обновить существующий продукт
+    @Transactional
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "update"}, histogram = true)
     public Optional<ProductResponseDto> updateProduct(Long id, ProductRequestDto productDto) {
-        return productRepository.findById(id)
+        // Блокировка строки: параллельное изменение остатка дождётся фиксации и опубликует состояние после неё
+        return productRepository.findByIdForUpdate(id)
                 .map(existingProduct -> {
                     existingProduct.setNameEn(productDto.getNameEn());
                     existingProduct.setNameRu(productDto.getNameRu());
@@ -109,41 +258,203 @@ public class ProductService {
                     existingProduct.setSize(productDto.getSize());
                     existingProduct.setExpiryDate(productDto.getExpiryDate());
                     existingProduct.setStockQuantity(productDto.getStockQuantity());
+                    existingProduct.setLowStockThreshold(productDto.getLowStockThreshold());
                     if (productDto.getCategoryId() != null) {
                         categoryRepository.findById(productDto.getCategoryId()).ifPresent(existingProduct::setCategory);
                     }
                     Product updatedProduct = productRepository.save(existingProduct);
                     checkStockAndSendNotification(updatedProduct);
-                    return toDto(updatedProduct);
+                    ProductResponseDto dto = toDto(updatedProduct);
+                    publishChange(dto);
+                    afterCommit(() -> productNameIndex.index(id, updatedProduct.getNameEn(), updatedProduct.getNameRu()));
+                    cacheAfterCommit(cache -> cache.put(id, dto));
+                    return dto;
                 });
     }
 
     // Удалить продукт
+    @Transactional
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "delete"}, histogram = true)
     public boolean deleteProduct(Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return productRepository.findByIdForUpdate(id)
+                .map(product -> {
+                    productRepository.delete(product);
+                    // Tombstone: после компакции продукт исчезает из топика, а потребители удаляют его из своих копий
+                    outboxService.enqueue(KafkaConfig.PRODUCT_CHANGES_TOPIC, String.valueOf(id), null);
+                    afterCommit(() -> productNameIndex.remove(id));
+                    cacheAfterCommit(cache -> cache.evict(id));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Автодополнение по началу названия; обслуживается индексом в памяти, без запросов к БД.
+     */
+    public List<ProductSuggestionDto> suggestProducts(String prefix, int limit) {
+        return productNameIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Полнотекстовый поиск продуктов по названиям и характеристикам.
+     * @param query Строка поиска.
+     * @param page Номер страницы, начиная с 0.
+     * @param size Размер страницы, ограничивается MAX_PAGE_SIZE.
+     * @return Страница результатов, упорядоченных по релевантности.
+     */
+    @Transactional(readOnly = true)
+    public ProductSearchPageDto searchProducts(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        // Как и в keyset-пагинации, лишняя строка показывает наличие следующей страницы без COUNT
+        List<ProductView> products = productRepository.search(query, pageSize + 1, (long) pageNumber * pageSize);
+        List<ProductResponseDto> items = products.stream()
+                .limit(pageSize)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return new ProductSearchPageDto(items, pageNumber, pageSize, products.size() > pageSize);
     }
 
+    @Timed(value = OPERATIONS_METRIC, extraTags = {"operation", "category"}, histogram = true)
     public List<ProductResponseDto> getProductsByCategoryId(Long categoryId) {
         return productRepository.findByCategoryId(categoryId).stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
-    private void checkStockAndSendNotification(Product product) {
-        if (product.getStockQuantity() < LOW_STOCK_THRESHOLD) {
-            try {
-                String productJson = objectMapper.writeValueAsString(toDto(product));
-                kafkaTemplate.send(LOW_STOCK_TOPIC, productJson);
-                log.info("Sent low stock notification for product: {}", product.getNameRu());
-            } catch (JsonProcessingException e) {
-                log.error("Error serializing product to JSON", e);
-            }
+    /**
+     * Ставит в outbox текущее состояние продукта для топика product-changes (ключ — ID продукта).
+     * Должен вызываться в транзакции, изменившей продукт, после всех изменений.
+     */
+    void publishChange(ProductResponseDto product) {
+        try {
+            outboxService.enqueue(KafkaConfig.PRODUCT_CHANGES_TOPIC, String.valueOf(product.getId()),
+                    objectMapper.writeValueAsString(product));
+        } catch (JsonProcessingException e) {
+            // Откатываем изменение: копии каталога у потребителей не должны разойтись с БД
+            throw new IllegalStateException("Error serializing product " + product.getId(), e);
+        }
+    }
+
+    /**
+     * Публикует текущее состояние продуктов, изменённых запросами в обход сущности
+     * (изменение остатков, переименование категории). Продукты читаются одним запросом.
+     * Строки продуктов должны быть уже заблокированы этой транзакцией (см. findByIdForUpdate).
+     */
+    void publishChanges(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        productRepository.findViewsByIdIn(productIds).forEach(view -> publishChange(toDto(view)));
+    }
+
+    /**
+     * Публикует продукты категории после её переименования. Строки блокируются до чтения,
+     * чтобы параллельное изменение продукта не опубликовало старое название после нового.
+     */
+    void publishCategoryChanges(Long categoryId) {
+        publishChanges(productRepository.lockIdsByCategoryId(categoryId));
+    }
+
+    /**
+     * Сбрасывает кэш продуктов целиком после фиксации текущей транзакции — например, когда изменилось
+     * денормализованное в ProductResponseDto название категории.
+     */
+    void evictAllCachedAfterCommit() {
+        cacheAfterCommit(Cache::clear);
+    }
+
+    /**
+     * Изменяет кэш продуктов после фиксации: откаченное изменение не попадает в кэш,
+     * а промах после сброса читает уже зафиксированную строку.
+     */
+    private void cacheAfterCommit(Consumer<Cache> action) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            afterCommit(() -> action.accept(cache));
+        }
+    }
+
+    /**
+     * Выполняет action после фиксации текущей транзакции (или сразу, если транзакции нет),
+     * чтобы откаченные изменения не попали в индекс автодополнения и кэш.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public int getDefaultLowStockThreshold() {
+        return defaultLowStockThreshold;
+    }
+
+    /**
+     * Эффективный порог низкого остатка: порог продукта, иначе порог категории, иначе порог по умолчанию.
+     * Та же цепочка COALESCE используется в запросах ProductRepository.
+     */
+    int effectiveLowStockThreshold(Product product) {
+        if (product.getLowStockThreshold() != null) {
+            return product.getLowStockThreshold();
+        }
+        if (product.getCategory() != null && product.getCategory().getLowStockThreshold() != null) {
+            return product.getCategory().getLowStockThreshold();
+        }
+        return defaultLowStockThreshold;
+    }
+
+    /**
+     * Ставит в outbox уведомление, если остаток перешёл через порог в любую сторону
+     * относительно последнего опубликованного состояния (product.lowStockNotified).
+     * Повторные изменения уже низкого остатка уведомлений не порождают.
+     * Должен вызываться в транзакции, изменяющей продукт, для управляемой сущности, которую эта транзакция
+     * создала или заблокировала: новое состояние сохраняется вместе с ней, а событие публикуется OutboxRelay
+     * после фиксации. Для продуктов, изменённых в обход сущности, — publishStockTransition.
+     */
+    void checkStockAndSendNotification(Product product) {
+        int threshold = effectiveLowStockThreshold(product);
+        boolean lowStock = product.getStockQuantity() < threshold;
+        if (lowStock == product.isLowStockNotified()) {
+            return;
+        }
+        if (enqueueStockEvent(lowStock, threshold, toDto(product))) {
+            product.setLowStockNotified(lowStock);
         }
     }
-}
 
+    /**
+     * Публикует переход через порог для продукта, чья строка могла измениться после чтения
+     * (сверка, атомарное изменение остатка). Решение принимается по текущей строке в БД
+     * (ProductRepository.markLowStockTransition), сущность не загружается и не перезаписывается.
+     * Должен вызываться в транзакции; при ошибке сериализации она откатывается вместе с отметкой.
+     */
+    void publishStockTransition(Long productId) {
+        productRepository.markLowStockTransition(productId, defaultLowStockThreshold).ifPresent(level ->
+                productRepository.findViewById(productId).ifPresent(view -> {
+                    if (!enqueueStockEvent(level.isLowStockNotified(), level.getLowStockThreshold(), toDto(view))) {
+                        throw new IllegalStateException("Error serializing stock event for product " + productId);
+                    }
+                }));
+    }
 
+    private boolean enqueueStockEvent(boolean lowStock, int threshold, ProductResponseDto product) {
+        LowStockEventDto.Type eventType = lowStock ? LowStockEventDto.Type.LOW_STOCK : LowStockEventDto.Type.STOCK_RESTORED;
+        try {
+            String eventJson = objectMapper.writeValueAsString(new LowStockEventDto(eventType, threshold, product));
+            // Ключ — ID продукта, как и в product-changes: переходы одного продукта не переупорядочиваются
+            outboxService.enqueue(KafkaConfig.LOW_STOCK_TOPIC, String.valueOf(product.getId()), eventJson);
+            log.info("Queued {} notification for product: {}", eventType, product.getNameRu());
+            return true;
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing product to JSON", e);
+            return false;
+        }
+    }
+}
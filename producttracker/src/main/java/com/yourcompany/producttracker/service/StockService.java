@@ -0,0 +1,112 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.config.CacheConfig;
+import com.yourcompany.producttracker.dto.StockAdjustmentDto;
+import com.yourcompany.producttracker.dto.StockAdjustmentResultDto;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import com.yourcompany.producttracker.repository.StockLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Изменение остатков без read-modify-write всей сущности.
+ * Каждое изменение — один условный UPDATE ... RETURNING, поэтому параллельные
+ * сканеры склада не затирают изменения друг друга.
+ */
+@Service
+@Slf4j
+public class StockService {
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockService(ProductRepository productRepository,
+                        ProductService productService,
+                        CacheManager cacheManager,
+                        PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public StockAdjustmentResultDto adjustStock(Long productId, int delta) {
+        return adjustStock(List.of(new StockAdjustmentDto(productId, delta))).get(0);
+    }
+
+    /**
+     * Применяет пакет изменений в одной транзакции. Изменения независимы: нехватка остатка
+     * по одному продукту не отменяет остальные.
+     * @param adjustments Изменения остатков.
+     * @return Результаты в том же порядке, что и запрос.
+     */
+    public List<StockAdjustmentResultDto> adjustStock(List<StockAdjustmentDto> adjustments) {
+        StockAdjustmentResultDto[] results = new StockAdjustmentResultDto[adjustments.size()];
+        // Строки блокируются в порядке возрастания ID — так конкурентные пакеты не взаимоблокируются
+        List<Integer> lockOrder = IntStream.range(0, adjustments.size()).boxed()
+                .sorted(Comparator.comparing(i -> adjustments.get(i).getProductId()))
+                .collect(Collectors.toList());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> adjustedIds = new ArrayList<>(adjustments.size());
+            for (int i : lockOrder) {
+                results[i] = apply(adjustments.get(i));
+                if (results[i].getStatus() == StockAdjustmentResultDto.Status.APPLIED) {
+                    adjustedIds.add(results[i].getProductId());
+                }
+            }
+            productService.publishChanges(adjustedIds);
+        });
+
+        // Кэш сбрасывается после фиксации, чтобы параллельное чтение не закэшировало старый остаток
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            for (StockAdjustmentResultDto result : results) {
+                if (result.getStatus() == StockAdjustmentResultDto.Status.APPLIED) {
+                    cache.evict(result.getProductId());
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private StockAdjustmentResultDto apply(StockAdjustmentDto adjustment) {
+        Long productId = adjustment.getProductId();
+        Optional<StockLevel> adjusted = productRepository.adjustStockQuantity(productId, adjustment.getDelta(),
+                productService.getDefaultLowStockThreshold());
+        if (adjusted.isEmpty()) {
+            StockAdjustmentResultDto.Status status;
+            if (!productRepository.existsById(productId)) {
+                status = StockAdjustmentResultDto.Status.NOT_FOUND;
+            } else if (adjustment.getDelta() > 0) {
+                // Неотрицательный остаток с приходом отклоняется только при переполнении
+                status = StockAdjustmentResultDto.Status.STOCK_LIMIT_EXCEEDED;
+            } else {
+                status = StockAdjustmentResultDto.Status.INSUFFICIENT_STOCK;
+            }
+            return new StockAdjustmentResultDto(productId, status, null);
+        }
+        StockLevel level = adjusted.get();
+        // Переход проверяется повторно только когда состояние остатка разошлось с опубликованным,
+        // а не при каждом изменении; порог уже посчитан в UPDATE ... RETURNING.
+        // Сущность не загружается: в пакете с повторным ID она была бы уже устаревшей
+        if (level.isLowStock() != level.isLowStockNotified()) {
+            // Уведомление попадает в outbox в той же транзакции, что и изменение остатка
+            productService.publishStockTransition(productId);
+        }
+        return new StockAdjustmentResultDto(productId, StockAdjustmentResultDto.Status.APPLIED, level.getStockQuantity());
+    }
+}
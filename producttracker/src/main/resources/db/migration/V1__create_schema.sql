@@ -0,0 +1,53 @@
+-- Шаг совпадает с allocationSize в Product: Hibernate резервирует по 50 ID за один вызов nextval
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE categories (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    low_stock_threshold INTEGER CHECK (low_stock_threshold >= 0)
+);
+
+CREATE TABLE products (
+    id BIGINT PRIMARY KEY DEFAULT nextval('products_seq'),
+    name_en VARCHAR(255) NOT NULL,
+    name_ru VARCHAR(255) NOT NULL,
+    characteristics TEXT,
+    weight DOUBLE PRECISION,
+    size VARCHAR(255),
+    expiry_date DATE,
+    stock_quantity INTEGER NOT NULL CHECK (stock_quantity >= 0),
+    -- NULL — порог берётся из категории, затем low.stock.threshold
+    low_stock_threshold INTEGER CHECK (low_stock_threshold >= 0),
+    category_id BIGINT,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    low_stock_notified BOOLEAN NOT NULL DEFAULT FALSE,
+    -- Поисковый вектор: названия с английской и русской морфологией (вес A), характеристики без стемминга (вес C)
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name_en, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(name_ru, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(characteristics, '')), 'C')
+    ) STORED,
+    FOREIGN KEY (category_id) REFERENCES categories(id)
+);
+
+-- Инкрементальная сверка низких остатков читает только строки, изменённые после водяного знака
+CREATE INDEX idx_products_updated_at ON products (updated_at);
+
+-- Соединение с категорией при расчёте эффективного порога и пересчёт при смене порога категории
+CREATE INDEX idx_products_category_id ON products (category_id);
+
+-- Полнотекстовый поиск /api/products/search
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
+
+-- Transactional outbox: события пишутся в одной транзакции с изменением продукта,
+-- а OutboxRelay публикует их в Kafka в порядке id
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('outbox_events_seq'),
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
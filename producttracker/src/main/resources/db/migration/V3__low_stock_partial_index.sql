@@ -0,0 +1,5 @@
+-- Товары, остаток которых сейчас ниже порога (по последнему опубликованному состоянию).
+-- Порог у каждого товара свой (COALESCE порогов товара, категории и значения по умолчанию),
+-- поэтому условие частичного индекса — флаг low_stock_notified, а не сравнение с константой.
+-- Индекс содержит только такие строки и остаётся маленьким при любом размере каталога.
+CREATE INDEX idx_products_low_stock ON products (id) WHERE low_stock_notified;
@@ -0,0 +1,6 @@
+-- Срок годности, о котором уже отправлено уведомление. Если expiry_date изменится,
+-- значения разойдутся и товар снова попадёт в уведомление, когда войдёт в окно
+ALTER TABLE products ADD COLUMN expiry_alerted_for DATE;
+
+-- Поиск истекающих товаров читает только диапазон дат окна, а не всю таблицу
+CREATE INDEX idx_products_expiry_date ON products (expiry_date) WHERE expiry_date IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Удаление продукта публикуется в компактируемый топик product-changes сообщением без тела (tombstone)
+ALTER TABLE outbox_events ALTER COLUMN payload DROP NOT NULL;
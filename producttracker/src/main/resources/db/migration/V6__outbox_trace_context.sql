@@ -0,0 +1,2 @@
+-- Контекст трассировки (W3C traceparent) запроса, породившего событие: публикация из outbox продолжает его трейс
+ALTER TABLE outbox_events ADD COLUMN traceparent VARCHAR(55);
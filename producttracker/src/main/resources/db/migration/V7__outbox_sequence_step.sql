@@ -0,0 +1,3 @@
+-- ID событий outbox выдаются по одному (allocationSize = 1 в OutboxEvent), под блокировкой строки продукта,
+-- чтобы порядок публикации совпадал с порядком фиксации транзакций
+ALTER SEQUENCE outbox_events_seq INCREMENT BY 1;
@@ -0,0 +1,22 @@
+-- Водяной знак сверки низких остатков хранится в БД и переживает рестарт:
+-- первая сверка после запуска читает только продукты, изменённые после предыдущего прохода.
+-- Таблица из одной строки; её блокировка заодно не даёт двум экземплярам сверять одновременно
+CREATE TABLE low_stock_sweep (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Предыдущих проходов ещё не было: первая сверка после миграции полная
+INSERT INTO low_stock_sweep (id, started_at) VALUES (1, TIMESTAMPTZ '1970-01-01 00:00:00+00');
+
+-- updated_at выставляют часы БД при любом UPDATE, как и now() в атомарных запросах ProductRepository:
+-- время изменения продукта и водяной знак сверки сравниваются по одним часам
+CREATE FUNCTION products_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_touch_updated_at BEFORE UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_touch_updated_at();
@@ -1,21 +0,0 @@
-DROP TABLE IF EXISTS products;
-DROP TABLE IF EXISTS categories;
-
-CREATE TABLE categories (
-    id BIGSERIAL PRIMARY KEY,
-    name VARCHAR(255),
-    description VARCHAR(255)
-);
-
-CREATE TABLE products (
-    id BIGSERIAL PRIMARY KEY,
-    name_en VARCHAR(255) NOT NULL,
-    name_ru VARCHAR(255) NOT NULL,
-    characteristics TEXT,
-    weight DOUBLE PRECISION,
-    size VARCHAR(255),
-    expiry_date DATE,
-    stock_quantity INTEGER NOT NULL,
-    category_id BIGINT,
-    FOREIGN KEY (category_id) REFERENCES categories(id)
-);
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.yourcompany.producttracker.controller;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheStatsController.class)
+public class CacheStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheManager cacheManager;
+
+    @Test
+    public void testGetCacheStats() throws Exception {
+        CaffeineCache cache = new CaffeineCache("products", Caffeine.newBuilder().recordStats().build());
+        cache.put(1L, "cached");
+        cache.get(1L);
+        cache.get(2L);
+
+        when(cacheManager.getCacheNames()).thenReturn(Collections.singletonList("products"));
+        when(cacheManager.getCache("products")).thenReturn(cache);
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("products"))
+                .andExpect(jsonPath("$[0].estimatedSize").value(1))
+                .andExpect(jsonPath("$[0].hitCount").value(1))
+                .andExpect(jsonPath("$[0].missCount").value(1));
+    }
+}
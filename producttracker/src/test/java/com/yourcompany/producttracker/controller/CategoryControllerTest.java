@@ -3,6 +3,7 @@ package com.yourcompany.producttracker.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yourcompany.producttracker.dto.CategoryRequestDto;
 import com.yourcompany.producttracker.dto.CategoryResponseDto;
+import com.yourcompany.producttracker.dto.CategorySummaryDto;
 import com.yourcompany.producttracker.service.CategoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -59,6 +61,20 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.description").value("All kinds of electronics"));
     }
 
+    @Test
+    public void testGetCategorySummary() throws Exception {
+        CategorySummaryDto summary = new CategorySummaryDto(1L, "Electronics", 12, 340, 2, LocalDate.of(2026, 1, 15));
+
+        when(categoryService.getCategorySummary()).thenReturn(Collections.singletonList(summary));
+
+        mockMvc.perform(get("/api/categories/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoryId").value(1L))
+                .andExpect(jsonPath("$[0].totalStock").value(340))
+                .andExpect(jsonPath("$[0].lowStockCount").value(2))
+                .andExpect(jsonPath("$[0].nearestExpiry").value("2026-01-15"));
+    }
+
     @Test
     public void testGetAllCategories() throws Exception {
         CategoryResponseDto responseDto = new CategoryResponseDto(1L, "Electronics", "All kinds of electronics");
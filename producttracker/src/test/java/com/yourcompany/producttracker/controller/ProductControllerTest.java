@@ -1,8 +1,11 @@
 package com.yourcompany.producttracker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.dto.ProductPageDto;
 import com.yourcompany.producttracker.dto.ProductRequestDto;
 import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.dto.ProductSearchPageDto;
+import com.yourcompany.producttracker.dto.ProductSuggestionDto;
 import com.yourcompany.producttracker.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +13,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -102,9 +110,17 @@ public class ProductControllerTest {
         responseDto.setCategoryId(1L);
         responseDto.setCategoryName("Electronics");
 
-        when(productService.getAllProducts()).thenReturn(Collections.singletonList(responseDto));
+        doAnswer(invocation -> {
+            Consumer<ProductResponseDto> action = invocation.getArgument(0);
+            action.accept(responseDto);
+            return null;
+        }).when(productService).forEachProduct(any());
 
-        mockMvc.perform(get("/api/products"))
+        MvcResult result = mockMvc.perform(get("/api/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].nameEn").value("Laptop"));
@@ -173,4 +189,97 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].nameEn").value("Laptop"));
     }
+
+    @Test
+    public void testStreamProductsAsNdjson() throws Exception {
+        ProductResponseDto first = new ProductResponseDto();
+        first.setId(1L);
+        first.setNameEn("Laptop");
+        ProductResponseDto second = new ProductResponseDto();
+        second.setId(2L);
+        second.setNameEn("Tablet");
+
+        doAnswer(invocation -> {
+            Consumer<ProductResponseDto> action = invocation.getArgument(0);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(productService).forEachProduct(any());
+
+        MvcResult result = mockMvc.perform(get("/api/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = dispatched.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], ProductResponseDto.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], ProductResponseDto.class).getId());
+    }
+
+    @Test
+    public void testGetProductsPage() throws Exception {
+        ProductResponseDto responseDto = new ProductResponseDto();
+        responseDto.setId(1L);
+        responseDto.setNameEn("Laptop");
+
+        when(productService.getProductsPage(isNull(), isNull(), any(Integer.class)))
+                .thenReturn(new ProductPageDto(Collections.singletonList(responseDto), 1L, null));
+
+        mockMvc.perform(get("/api/products/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value(1L));
+    }
+
+    @Test
+    public void testGetLowStockProducts() throws Exception {
+        ProductResponseDto responseDto = new ProductResponseDto();
+        responseDto.setId(7L);
+        responseDto.setStockQuantity(2);
+
+        when(productService.getLowStockProductsPage(5L, 50))
+                .thenReturn(new ProductPageDto(Collections.singletonList(responseDto), null, null));
+
+        mockMvc.perform(get("/api/products/low-stock").param("after", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7L))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testSearchProducts() throws Exception {
+        ProductResponseDto responseDto = new ProductResponseDto();
+        responseDto.setId(1L);
+        responseDto.setNameRu("Ноутбук");
+
+        when(productService.searchProducts("ноутбук", 0, 20))
+                .thenReturn(new ProductSearchPageDto(Collections.singletonList(responseDto), 0, 20, false));
+
+        mockMvc.perform(get("/api/products/search").param("q", " ноутбук "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].nameRu").value("Ноутбук"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void testSearchProductsRejectsBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSuggestProducts() throws Exception {
+        when(productService.suggestProducts("ноут", 5))
+                .thenReturn(Collections.singletonList(new ProductSuggestionDto(1L, "Laptop", "Ноутбук")));
+
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "ноут").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].nameRu").value("Ноутбук"));
+    }
 }
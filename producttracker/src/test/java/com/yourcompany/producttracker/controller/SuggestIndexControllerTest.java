@@ -0,0 +1,48 @@
+package com.yourcompany.producttracker.controller;
+
+import com.yourcompany.producttracker.dto.SuggestIndexStatsDto;
+import com.yourcompany.producttracker.service.ProductNameIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SuggestIndexController.class)
+public class SuggestIndexControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductNameIndex productNameIndex;
+
+    @Test
+    public void testGetStats() throws Exception {
+        when(productNameIndex.getStats()).thenReturn(new SuggestIndexStatsDto(3, 12, 4096, 15, Instant.now()));
+
+        mockMvc.perform(get("/api/suggest-index/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products").value(3))
+                .andExpect(jsonPath("$.estimatedMemoryBytes").value(4096))
+                .andExpect(jsonPath("$.lastRebuildMillis").value(15));
+    }
+
+    @Test
+    public void testRebuild() throws Exception {
+        when(productNameIndex.getStats()).thenReturn(new SuggestIndexStatsDto(3, 12, 4096, 15, Instant.now()));
+
+        mockMvc.perform(post("/api/suggest-index/rebuild"))
+                .andExpect(status().isOk());
+
+        verify(productNameIndex).rebuild();
+    }
+}
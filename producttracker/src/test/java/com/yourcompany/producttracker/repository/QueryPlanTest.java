@@ -0,0 +1,242 @@
+package com.yourcompany.producttracker.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверяет планы запросов ProductRepository на настоящем PostgreSQL со схемой из миграций Flyway:
+ * ни один запрос не должен читать таблицу products последовательным сканированием.
+ * Каждый метод репозитория вызывается с типичными аргументами, а проверяется SQL, который Hibernate
+ * действительно отправил в БД (перехватывается datasource-proxy), с теми же значениями параметров.
+ * Новый метод без примера вызова в {@link #invocations()} роняет тест.
+ * Потоковые выгрузки всего каталога (streamAll*) читают таблицу целиком намеренно и не проверяются.
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.RecordingDataSource.class)
+public class QueryPlanTest {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int CATEGORIES = 1_000;
+
+    private static final Set<String> FULL_SCANS = Set.of("streamAllOrderById", "streamAllNames");
+
+    /** SQL, отправленный через DataSource приложения, вместе с параметрами. */
+    private static final List<QueryInfo> EXECUTED = new CopyOnWriteArrayList<>();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    // Реальные ID из начала, середины и конца таблицы — курсоры для проверки пагинации
+    private static final List<Long> cursors = new ArrayList<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @TestConfiguration
+    static class RecordingDataSource {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .afterQuery((execution, queries) -> EXECUTED.addAll(queries))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO categories (name, description) "
+                    + "SELECT 'Category ' || g, 'Generated' FROM generate_series(1, " + CATEGORIES + ") g");
+            // Каждый тысячный товар — ноутбук, каждый пятисотый — с низким остатком,
+            // updated_at равномерно распределён по последнему году, сроки годности — по двум следующим
+            statement.execute("INSERT INTO products (name_en, name_ru, characteristics, stock_quantity, category_id, "
+                    + "updated_at, low_stock_notified, expiry_date) "
+                    + "SELECT CASE WHEN g % 1000 = 0 THEN 'Laptop ' || g ELSE 'Product ' || g END, "
+                    + "'Товар ' || g, 'Generated product', "
+                    + "CASE WHEN g % 500 = 0 THEN 1 ELSE 100 END, "
+                    + "1 + g % " + CATEGORIES + ", "
+                    + "now() - (g % 365) * interval '1 day' - (g % 86400) * interval '1 second', "
+                    + "g % 500 = 0, "
+                    + "current_date + g % 730 "
+                    + "FROM generate_series(1, " + PRODUCTS + ") g");
+            statement.execute("ANALYZE");
+            for (int position : new int[] {10, PRODUCTS / 2, PRODUCTS - 10}) {
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT id FROM products ORDER BY id OFFSET " + position + " LIMIT 1")) {
+                    resultSet.next();
+                    cursors.add(resultSet.getLong(1));
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Пример вызова каждого метода ProductRepository; курсоры и окна — как в реальных запросах.
+     */
+    private Map<String, Consumer<ProductRepository>> invocations() {
+        Map<String, Consumer<ProductRepository>> invocations = new LinkedHashMap<>();
+        invocations.put("findById", repository -> repository.findById(100L));
+        invocations.put("findByIdForUpdate", repository -> repository.findByIdForUpdate(100L));
+        invocations.put("lockIdsByCategoryId", repository -> repository.lockIdsByCategoryId(1L));
+        invocations.put("findLowStockTransitionsSince",
+                repository -> repository.findLowStockTransitionsSince(Instant.now().minus(1, ChronoUnit.DAYS), 10));
+        invocations.put("findViewById", repository -> repository.findViewById(100L));
+        invocations.put("findByCategoryId", repository -> repository.findByCategoryId(1L));
+        invocations.put("findViewsByIdIn", repository -> repository.findViewsByIdIn(List.of(100L, 200L, 300L)));
+        invocations.put("search", repository -> repository.search("laptop", 20, 0));
+        // Курсоры пагинации приходят из любого места каталога: проверяем начало, середину и конец таблицы
+        invocations.put("findByIdGreaterThanOrderByIdAsc", repository -> cursors.forEach(cursor ->
+                repository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, 11))));
+        invocations.put("findByIdLessThanOrderByIdDesc", repository -> cursors.forEach(cursor ->
+                repository.findByIdLessThanOrderByIdDesc(cursor, PageRequest.of(0, 11))));
+        invocations.put("findByLowStockNotifiedTrueAndIdGreaterThanOrderByIdAsc", repository -> cursors.forEach(cursor ->
+                repository.findByLowStockNotifiedTrueAndIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, 51))));
+        invocations.put("existsBefore", repository -> cursors.forEach(repository::existsBefore));
+        invocations.put("existsAfter", repository -> cursors.forEach(repository::existsAfter));
+        invocations.put("adjustStockQuantity", repository -> repository.adjustStockQuantity(101L, -1, 10));
+        invocations.put("markLowStockTransition", repository -> repository.markLowStockTransition(101L, 10));
+        invocations.put("markExpiringSoon",
+                repository -> repository.markExpiringSoon(LocalDate.now(), LocalDate.now().plusDays(7), 500));
+        invocations.put("touchByCategoryId", repository -> repository.touchByCategoryId(1L));
+        return invocations;
+    }
+
+    @Test
+    public void testRepositoryQueriesDoNotSeqScanProducts() throws Exception {
+        Map<String, Consumer<ProductRepository>> invocations = invocations();
+        List<String> missing = Arrays.stream(ProductRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .filter(name -> !FULL_SCANS.contains(name) && !invocations.containsKey(name))
+                .distinct()
+                .collect(Collectors.toList());
+        assertTrue(missing.isEmpty(), "Нет примера вызова для методов ProductRepository: " + missing);
+
+        // Тестовая транзакция откатывается: изменяющие запросы данные не портят
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Consumer<ProductRepository>> entry : invocations.entrySet()) {
+            EXECUTED.clear();
+            entry.getValue().accept(productRepository);
+            assertFalse(EXECUTED.isEmpty(), entry.getKey() + " не выполнил ни одного запроса");
+            for (QueryInfo query : EXECUTED) {
+                JsonNode plan = explain(query);
+                if (hasSeqScanOnProducts(plan)) {
+                    failures.add(entry.getKey() + ": " + query.getQuery() + "\n" + plan.toPrettyString());
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail("Seq Scan on products in:\n" + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * План запроса с теми же значениями параметров, что передал Hibernate.
+     */
+    private JsonNode explain(QueryInfo query) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + query.getQuery())) {
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation parameter : query.getParametersList().get(0)) {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private boolean hasSeqScanOnProducts(JsonNode node) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && "products".equals(node.path("Relation Name").asText())) {
+            return true;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            if (hasSeqScanOnProducts(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,20 +2,26 @@ package com.yourcompany.producttracker.service;
 
 import com.yourcompany.producttracker.dto.CategoryRequestDto;
 import com.yourcompany.producttracker.dto.CategoryResponseDto;
+import com.yourcompany.producttracker.dto.CategorySummaryDto;
 import com.yourcompany.producttracker.model.Category;
 import com.yourcompany.producttracker.repository.CategoryRepository;
+import com.yourcompany.producttracker.repository.CategorySummaryView;
+import com.yourcompany.producttracker.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +30,12 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -90,6 +102,58 @@ public class CategoryServiceTest {
 
         assertNotNull(responseDto);
         assertEquals("All kinds of electronic devices", responseDto.getDescription());
+        verify(productRepository, never()).touchByCategoryId(any());
+        verify(productService, never()).publishCategoryChanges(any());
+        verify(productService, never()).evictAllCachedAfterCommit();
+    }
+
+    @Test
+    public void testRenameCategoryRepublishesProducts() {
+        CategoryRequestDto requestDto = new CategoryRequestDto("Computers", "All kinds of electronics");
+        Category category = new Category(1L, "Electronics", "All kinds of electronics");
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+
+        categoryService.updateCategory(1L, requestDto);
+
+        verify(productService).publishCategoryChanges(1L);
+        verify(productService).evictAllCachedAfterCommit();
+    }
+
+    @Test
+    public void testUpdateCategoryThresholdTouchesProducts() {
+        CategoryRequestDto requestDto = new CategoryRequestDto("Electronics", "All kinds of electronics", 25);
+        Category category = new Category(1L, "Electronics", "All kinds of electronics");
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+
+        CategoryResponseDto responseDto = categoryService.updateCategory(1L, requestDto);
+
+        assertEquals(25, responseDto.getLowStockThreshold());
+        verify(productRepository).touchByCategoryId(1L);
+    }
+
+    @Test
+    public void testGetCategorySummaryUsesDefaultThreshold() {
+        when(productService.getDefaultLowStockThreshold()).thenReturn(10);
+        CategorySummaryView view = new CategorySummaryView() {
+            public Long getCategoryId() { return 1L; }
+            public String getCategoryName() { return "Electronics"; }
+            public Long getProductCount() { return 3L; }
+            public Long getTotalStock() { return 45L; }
+            public Long getLowStockCount() { return 1L; }
+            public LocalDate getNearestExpiry() { return null; }
+        };
+        when(categoryRepository.summarize(10)).thenReturn(List.of(view));
+
+        List<CategorySummaryDto> summary = categoryService.getCategorySummary();
+
+        assertEquals(1, summary.size());
+        assertEquals("Electronics", summary.get(0).getCategoryName());
+        assertEquals(45L, summary.get(0).getTotalStock());
+        assertEquals(1L, summary.get(0).getLowStockCount());
     }
 
     @Test
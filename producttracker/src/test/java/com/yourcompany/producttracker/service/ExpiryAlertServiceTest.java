@@ -0,0 +1,88 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yourcompany.producttracker.config.KafkaConfig;
+import com.yourcompany.producttracker.repository.ExpiringProductView;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpiryAlertServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpiryAlertService expiryAlertService;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        expiryAlertService = new ExpiryAlertService(productRepository, outboxService, objectMapper,
+                transactionManager, 7, 2);
+    }
+
+    private ExpiringProductView product(long id, LocalDate expiryDate) {
+        return new ExpiringProductView() {
+            public Long getId() { return id; }
+            public String getNameEn() { return "Milk " + id; }
+            public String getNameRu() { return "Молоко " + id; }
+            public LocalDate getExpiryDate() { return expiryDate; }
+            public Integer getStockQuantity() { return 5; }
+        };
+    }
+
+    @Test
+    public void testScanPublishesOneEventPerExpiryDay() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        LocalDate nextWeek = TODAY.plusDays(7);
+        when(productRepository.markExpiringSoon(TODAY, nextWeek, 2))
+                .thenReturn(List.of(product(1L, tomorrow), product(2L, tomorrow)))
+                .thenReturn(List.of(product(3L, nextWeek)));
+
+        int published = expiryAlertService.scan(TODAY);
+
+        // Полная порция означает, что в окне могут остаться товары, поэтому запрашивается следующая
+        assertEquals(3, published);
+        verify(productRepository, times(2)).markExpiringSoon(TODAY, nextWeek, 2);
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(outboxService).enqueue(eq(KafkaConfig.EXPIRY_TOPIC), eq("2026-03-02"), payloads.capture());
+        verify(outboxService).enqueue(eq(KafkaConfig.EXPIRY_TOPIC), eq("2026-03-08"), payloads.capture());
+        assertTrue(payloads.getAllValues().get(0).contains("\"daysLeft\":1"));
+        assertTrue(payloads.getAllValues().get(0).contains("\"id\":2"));
+        assertTrue(payloads.getAllValues().get(1).contains("\"daysLeft\":7"));
+    }
+
+    @Test
+    public void testScanWithNothingInWindowPublishesNothing() {
+        when(productRepository.markExpiringSoon(TODAY, TODAY.plusDays(7), 2)).thenReturn(List.of());
+
+        assertEquals(0, expiryAlertService.scan(TODAY));
+        verifyNoInteractions(outboxService);
+    }
+}
@@ -0,0 +1,53 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    public void testSweepStartsFromStoredWatermarkAndAdvancesIt() {
+        OffsetDateTime previousSweep = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        when(jdbcTemplate.queryForObject(NotificationService.LOCK_WATERMARK_SQL, OffsetDateTime.class))
+                .thenReturn(previousSweep);
+        when(productRepository.findLowStockTransitionsSince(eq(previousSweep.minusMinutes(1).toInstant()), anyInt()))
+                .thenReturn(List.of(1L));
+
+        notificationService.checkLowStockAndNotify();
+
+        verify(productService).publishStockTransition(1L);
+        InOrder order = inOrder(jdbcTemplate, productRepository);
+        order.verify(jdbcTemplate).queryForObject(NotificationService.LOCK_WATERMARK_SQL, OffsetDateTime.class);
+        order.verify(productRepository).findLowStockTransitionsSince(eq(previousSweep.minusMinutes(1).toInstant()), anyInt());
+        order.verify(jdbcTemplate).update(NotificationService.ADVANCE_WATERMARK_SQL);
+    }
+}
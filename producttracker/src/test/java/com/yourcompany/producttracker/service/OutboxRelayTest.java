@@ -0,0 +1,190 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.model.OutboxEvent;
+import com.yourcompany.producttracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, 10, 1000, 60000,
+                0, 30000, meterRegistry, Tracer.NOOP, Propagator.NOOP);
+    }
+
+    @Test
+    public void testPublishesBatchInOrderAndDeletesIt() {
+        OutboxEvent first = event(1L, "a");
+        OutboxEvent second = event(2L, "b");
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send("low-stock-notifications", null, "a")).thenReturn(sent());
+        when(kafkaTemplate.send("low-stock-notifications", null, "b")).thenReturn(sent());
+
+        int published = outboxRelay.publishNextBatch();
+
+        assertEquals(2, published);
+        InOrder order = inOrder(kafkaTemplate);
+        order.verify(kafkaTemplate).send("low-stock-notifications", null, "a");
+        order.verify(kafkaTemplate).send("low-stock-notifications", null, "b");
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2, meterRegistry.get("outbox.relay.send")
+                .tags("topic", "low-stock-notifications", "result", "success").timer().count());
+        assertEquals(2.0, meterRegistry.get("outbox.relay.published").functionCounter().count());
+    }
+
+    @Test
+    public void testDeletesOnlyAcknowledgedPrefixOnFailure() {
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, "a"), event(2L, "b"), event(3L, "c")));
+        when(kafkaTemplate.send("low-stock-notifications", null, "a")).thenReturn(sent());
+        when(kafkaTemplate.send("low-stock-notifications", null, "b"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaTemplate.send("low-stock-notifications", null, "c")).thenReturn(sent());
+
+        int published = outboxRelay.publishNextBatch();
+
+        assertEquals(1, published);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1, meterRegistry.get("outbox.relay.send").tag("result", "failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("outbox.relay.failures")
+                .tag("topic", "low-stock-notifications").counter().count());
+    }
+
+    @Test
+    public void testContinuesTraceOfTheTransactionThatWroteTheEvent() {
+        String traceParent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+        OutboxEvent event = new OutboxEvent(1L, "low-stock-notifications", "1", "a", Instant.now(), traceParent);
+        Propagator propagator = mock(Propagator.class);
+        Span.Builder spanBuilder = mock(Span.Builder.class, RETURNS_SELF);
+        when(spanBuilder.start()).thenReturn(Span.NOOP);
+        when(propagator.extract(any(), any())).thenReturn(spanBuilder);
+        OutboxRelay tracingRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, 10, 1000,
+                60000, 0, 30000, meterRegistry, Tracer.NOOP, propagator);
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(event));
+        when(kafkaTemplate.send("low-stock-notifications", "1", "a")).thenReturn(sent());
+
+        assertEquals(1, tracingRelay.publishNextBatch());
+
+        // Span публикации — потомок span'а запроса и начинается с момента записи в outbox
+        verify(propagator).extract(eq(Map.of("traceparent", traceParent)), any());
+        verify(spanBuilder).startTimestamp(event.getCreatedAt().toEpochMilli(), TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testProbesWithSingleEventAfterFailureAndResumesFullBatches() {
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(event(1L, "a")));
+        when(kafkaTemplate.send("low-stock-notifications", null, "a"))
+                .thenThrow(new KafkaException("Topic not present in metadata after 5000 ms"))
+                .thenReturn(sent());
+
+        assertEquals(0, outboxRelay.publishNextBatch());
+        assertEquals(1, outboxRelay.publishNextBatch());
+        outboxRelay.publishNextBatch();
+
+        InOrder order = inOrder(outboxEventRepository);
+        order.verify(outboxEventRepository).findAllByOrderByIdAsc(PageRequest.of(0, 10));
+        order.verify(outboxEventRepository).findAllByOrderByIdAsc(PageRequest.of(0, 1));
+        order.verify(outboxEventRepository).findAllByOrderByIdAsc(PageRequest.of(0, 10));
+        assertEquals(1.0, meterRegistry.get("outbox.relay.failures").counter().count());
+    }
+
+    @Test
+    public void testStopsSendingAtFirstSynchronousFailure() {
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, "a"), event(2L, "b"), event(3L, "c"), event(4L, "d")));
+        when(kafkaTemplate.send("low-stock-notifications", null, "a")).thenReturn(sent());
+        when(kafkaTemplate.send("low-stock-notifications", null, "b"))
+                .thenThrow(new KafkaException("Topic not present in metadata after 5000 ms"));
+
+        assertEquals(1, outboxRelay.publishNextBatch());
+
+        // Каждый следующий send заблокировался бы на max.block.ms
+        verify(kafkaTemplate, never()).send("low-stock-notifications", null, "c");
+        verify(kafkaTemplate, never()).send("low-stock-notifications", null, "d");
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1.0, meterRegistry.get("outbox.relay.failures").counter().count());
+    }
+
+    @Test
+    public void testWaitsOutBackoffWithoutTouchingKafka() {
+        OutboxRelay slowRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, 10, 1000,
+                60000, 60000, 60000, meterRegistry, Tracer.NOOP, Propagator.NOOP);
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(event(1L, "a")));
+        when(kafkaTemplate.send("low-stock-notifications", null, "a"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        slowRelay.relay();
+        slowRelay.relay();
+
+        verify(kafkaTemplate, times(1)).send("low-stock-notifications", null, "a");
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    public void testSkipsWhenAnotherInstanceHoldsTheLock() {
+        when(outboxEventRepository.tryAcquireRelayLock(anyLong())).thenReturn(false);
+
+        assertEquals(-1, outboxRelay.publishNextBatch());
+        verify(outboxEventRepository, never()).findAllByOrderByIdAsc(any());
+    }
+
+    private OutboxEvent event(Long id, String payload) {
+        return new OutboxEvent(id, "low-stock-notifications", null, payload, Instant.now(), null);
+    }
+
+    private CompletableFuture<SendResult<String, String>> sent() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,167 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yourcompany.producttracker.dto.ProductImportResultDto;
+import com.yourcompany.producttracker.dto.ProductRequestDto;
+import com.yourcompany.producttracker.model.Category;
+import com.yourcompany.producttracker.model.Product;
+import com.yourcompany.producttracker.repository.CategoryRepository;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductNameIndex productNameIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        productImportService = new ProductImportService(productRepository, categoryRepository, productService, productNameIndex,
+                objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), entityManager,
+                transactionManager, 2);
+    }
+
+    private void stubPersistence() {
+        when(productService.toEntity(any(), any())).thenAnswer(invocation -> new Product());
+        when(productRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testImportCsvResolvesCategoriesOncePerBatch() throws Exception {
+        stubPersistence();
+        Category category = new Category(1L, "Electronics", "All kinds of electronics");
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of(category));
+
+        String csv = "nameEn,nameRu,stockQuantity,categoryId,characteristics\n"
+                + "Laptop,Ноутбук,20,1,\"15.6\"\", 16GB\"\n"
+                + "Tablet,Планшет,30,1,\n"
+                + "Phone,Телефон,40,,\n";
+
+        ProductImportResultDto result = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        // Два батча (размер 2), но категории запрашиваются только для батча, где они есть
+        verify(categoryRepository, times(1)).findAllById(any());
+        verify(productRepository, times(2)).saveAll(anyIterable());
+        verify(productNameIndex, times(3)).index(any(), any(), any());
+        verify(productService, times(2)).toEntity(any(), eq(category));
+
+        ArgumentCaptor<ProductRequestDto> captor = ArgumentCaptor.forClass(ProductRequestDto.class);
+        verify(productService, times(3)).toEntity(captor.capture(), any());
+        assertEquals("15.6\", 16GB", captor.getAllValues().get(0).getCharacteristics());
+    }
+
+    @Test
+    public void testImportNdjsonReportsRowErrors() throws Exception {
+        stubPersistence();
+        when(categoryRepository.findAllById(Set.of(99L))).thenReturn(List.of());
+
+        String ndjson = "{\"nameEn\":\"Laptop\",\"nameRu\":\"Ноутбук\",\"stockQuantity\":5}\n"
+                + "{\"nameEn\":\"\",\"nameRu\":\"Пусто\",\"stockQuantity\":5}\n"
+                + "not-json\n"
+                + "{\"nameEn\":\"Fan\",\"nameRu\":\"Вентилятор\",\"stockQuantity\":1,\"categoryId\":99}\n";
+
+        ProductImportResultDto result = productImportService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertEquals(3L, result.getErrors().get(1).getLine());
+        assertEquals("Категория не найдена: 99", result.getErrors().get(2).getMessage());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedSoOnlyTheOffendingRowIsRejected() throws Exception {
+        ProductImportService importService = new ProductImportService(productRepository, categoryRepository,
+                productService, productNameIndex, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, transactionManager, 4);
+        when(productService.toEntity(any(), any())).thenAnswer(invocation -> {
+            Product product = new Product();
+            product.setNameEn(invocation.<ProductRequestDto>getArgument(0).getNameEn());
+            return product;
+        });
+        // Транзакция с "Broken" откатывается целиком, как при нарушении ограничения БД
+        when(productRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> "Broken".equals(product.getNameEn()))) {
+                throw new DataIntegrityViolationException("batch failed",
+                        new SQLException("value too long for type character varying(255)"));
+            }
+            return products;
+        });
+
+        String csv = "nameEn,nameRu,stockQuantity\n"
+                + "Laptop,Ноутбук,20\n"
+                + "Tablet,Планшет,30\n"
+                + "Broken,Сломанный,1\n"
+                + "Phone,Телефон,40\n";
+
+        ProductImportResultDto result = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(4L, result.getErrors().get(0).getLine());
+        assertEquals("Ошибка записи в БД: value too long for type character varying(255)",
+                result.getErrors().get(0).getMessage());
+        verify(productNameIndex, times(3)).index(any(), any(), any());
+    }
+
+    @Test
+    public void testImportCsvWithoutRequiredColumnsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () ->
+                productImportService.importProducts(stream("nameEn,nameRu\nLaptop,Ноутбук\n"), ProductImportService.Format.CSV));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
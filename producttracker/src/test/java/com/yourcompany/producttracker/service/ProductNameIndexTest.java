@@ -0,0 +1,83 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.dto.ProductSuggestionDto;
+import com.yourcompany.producttracker.repository.ProductNameView;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductNameIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    public void setUp() {
+        productNameIndex = new ProductNameIndex(productRepository, transactionManager);
+        when(productRepository.streamAllNames()).thenReturn(Stream.of(
+                view(1L, "Gaming Laptop", "Игровой ноутбук"),
+                view(2L, "Laptop Stand", "Подставка для ноутбука"),
+                view(3L, "Tablet", "Планшет")));
+        productNameIndex.rebuild();
+    }
+
+    @Test
+    public void testSuggestMatchesWordPrefixesInBothLanguages() {
+        assertEquals(List.of(1L, 2L), ids(productNameIndex.suggest("lap", 10)));
+        assertEquals(List.of(1L, 2L), ids(productNameIndex.suggest("НОУТ", 10)));
+        assertEquals(List.of(1L), ids(productNameIndex.suggest("игровой но", 10)));
+        assertEquals(List.of(1L), ids(productNameIndex.suggest("lap", 1)));
+        assertTrue(productNameIndex.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdatesReplaceOldTerms() {
+        productNameIndex.index(3L, "Tablet Pro", "Планшет Про");
+        productNameIndex.index(4L, "Phone", "Телефон");
+        productNameIndex.remove(2L);
+
+        assertEquals(List.of(3L), ids(productNameIndex.suggest("pro", 10)));
+        assertEquals(List.of(4L), ids(productNameIndex.suggest("тел", 10)));
+        assertEquals(List.of(1L), ids(productNameIndex.suggest("lap", 10)));
+        assertEquals(3, productNameIndex.getStats().getProducts());
+    }
+
+    @Test
+    public void testStatsReportFootprintAndRebuild() {
+        assertEquals(3, productNameIndex.getStats().getProducts());
+        assertTrue(productNameIndex.getStats().getTerms() > 3);
+        assertTrue(productNameIndex.getStats().getEstimatedMemoryBytes() > 0);
+        assertNotNull(productNameIndex.getStats().getLastRebuiltAt());
+    }
+
+    private List<Long> ids(List<ProductSuggestionDto> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDto::getId).collect(Collectors.toList());
+    }
+
+    private ProductNameView view(Long id, String nameEn, String nameRu) {
+        return new ProductNameView() {
+            public Long getId() { return id; }
+            public String getNameEn() { return nameEn; }
+            public String getNameRu() { return nameRu; }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.dto.ProductPageDto;
+import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.model.Category;
+import com.yourcompany.producttracker.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Каждый запрос чтения ProductService должен выполняться одним SQL-выражением:
+ * категория приходит в той же строке через LEFT JOIN, без догрузки сущностей.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProductService.class)
+public class ProductReadStatementsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private ProductNameIndex productNameIndex;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+    private Category electronics;
+    private Long firstProductId;
+
+    @BeforeEach
+    public void setUp() {
+        electronics = testEntityManager.persist(new Category(null, "Electronics", "All kinds of electronics"));
+        Category appliances = testEntityManager.persist(new Category(null, "Appliances", "Home appliances"));
+        for (int i = 0; i < 6; i++) {
+            Product product = new Product();
+            product.setNameEn("Product " + i);
+            product.setNameRu("Товар " + i);
+            product.setStockQuantity(i);
+            product.setCategory(i % 2 == 0 ? electronics : appliances);
+            testEntityManager.persist(product);
+            if (firstProductId == null) {
+                firstProductId = product.getId();
+            }
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testGetProductByIdUsesSingleStatement() {
+        Optional<ProductResponseDto> product = productService.getProductById(firstProductId);
+
+        assertTrue(product.isPresent());
+        assertEquals("Electronics", product.get().getCategoryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetProductsByCategoryIdUsesSingleStatement() {
+        List<ProductResponseDto> products = productService.getProductsByCategoryId(electronics.getId());
+
+        assertEquals(3, products.size());
+        assertTrue(products.stream().allMatch(product -> "Electronics".equals(product.getCategoryName())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testGetProductsPageUsesSingleStatement() {
+        ProductPageDto page = productService.getProductsPage(null, null, 4);
+
+        assertEquals(4, page.getItems().size());
+        assertEquals("Appliances", page.getItems().get(1).getCategoryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testForEachProductUsesSingleStatement() {
+        List<ProductResponseDto> products = new ArrayList<>();
+
+        productService.forEachProduct(products::add);
+
+        assertEquals(6, products.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -1,23 +1,45 @@
 package com.yourcompany.producttracker.service;
 
+import com.yourcompany.producttracker.dto.LowStockEventDto;
+import com.yourcompany.producttracker.dto.ProductPageDto;
 import com.yourcompany.producttracker.dto.ProductRequestDto;
 import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.dto.ProductSearchPageDto;
 import com.yourcompany.producttracker.model.Category;
 import com.yourcompany.producttracker.model.Product;
 import com.yourcompany.producttracker.repository.CategoryRepository;
 import com.yourcompany.producttracker.repository.ProductRepository;
+import com.yourcompany.producttracker.repository.ProductView;
+import com.yourcompany.producttracker.repository.StockLevel;
 import com.fasterxml.jackson.core.JsonProcessingException; // Add this import
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,11 +55,30 @@ public class ProductServiceTest {
     private com.fasterxml.jackson.databind.ObjectMapper objectMapper; // Add mock for ObjectMapper
 
     @Mock
-    private org.springframework.kafka.core.KafkaTemplate<String, String> kafkaTemplate; // Add mock for KafkaTemplate
+    private OutboxService outboxService;
+
+    @Mock
+    private ProductNameIndex productNameIndex;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productsCache;
 
     @InjectMocks
     private ProductService productService;
 
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(productService, "defaultLowStockThreshold", 10);
+        lenient().when(cacheManager.getCache("products")).thenReturn(productsCache);
+    }
+
+    private ProductView view(long id) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ProductView.class, Map.of("id", id));
+    }
+
     @Test
     public void testCreateProductWithCategory() throws JsonProcessingException {
         Category category = new Category(1L, "Electronics", "All kinds of electronics");
@@ -56,9 +97,8 @@ public class ProductServiceTest {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         // Mock ObjectMapper behavior
+        when(objectMapper.writeValueAsString(any(LowStockEventDto.class))).thenReturn("{}");
         when(objectMapper.writeValueAsString(any(ProductResponseDto.class))).thenReturn("{\"id\":1,\"nameEn\":\"Laptop\"}");
-        // Mock KafkaTemplate behavior
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
 
         ProductResponseDto responseDto = productService.createProduct(requestDto);
 
@@ -66,5 +106,183 @@ public class ProductServiceTest {
         assertEquals("Laptop", responseDto.getNameEn());
         assertEquals(1L, responseDto.getCategoryId());
         assertEquals("Electronics", responseDto.getCategoryName());
+        verify(productNameIndex).index(1L, "Laptop", "Ноутбук");
+        verify(outboxService).enqueue("product-changes", "1", "{\"id\":1,\"nameEn\":\"Laptop\"}");
+    }
+
+    @Test
+    public void testDeleteProductPublishesTombstone() {
+        Product product = new Product();
+        product.setId(1L);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+
+        assertTrue(productService.deleteProduct(1L));
+
+        verify(productRepository).delete(product);
+        verify(outboxService).enqueue("product-changes", "1", null);
+        verify(productNameIndex).remove(1L);
+    }
+
+    @Test
+    public void testUpdatedProductIsCachedOnlyAfterCommit() throws JsonProcessingException {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStockQuantity(50);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(product)).thenReturn(product);
+        when(objectMapper.writeValueAsString(any(ProductResponseDto.class))).thenReturn("{}");
+        ProductRequestDto requestDto = new ProductRequestDto();
+        requestDto.setNameEn("Milk");
+        requestDto.setNameRu("Молоко");
+        requestDto.setStockQuantity(40);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ProductResponseDto dto = productService.updateProduct(1L, requestDto).orElseThrow();
+            // Транзакция ещё не зафиксирована: в кэше должно остаться прежнее состояние
+            verify(productsCache, never()).put(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(productsCache).put(1L, dto);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRolledBackDeleteDoesNotEvictCachedProduct() {
+        Product product = new Product();
+        product.setId(1L);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.deleteProduct(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(productsCache, never()).evict(any());
+    }
+
+    @Test
+    public void testGetProductsPageReturnsCursorWhenMoreRowsExist() {
+        ProductView first = view(5L);
+        ProductView second = view(7L);
+        ProductView third = view(9L);
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any()))
+                .thenReturn(Arrays.asList(first, second, third));
+
+        ProductPageDto page = productService.getProductsPage(3L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(7L, page.getNextCursor());
+        assertNull(page.getPrevCursor());
+    }
+
+    @Test
+    public void testGetProductsPageBackwardsReturnsItemsInIdOrder() {
+        ProductView first = view(5L);
+        ProductView second = view(7L);
+        ProductView third = view(9L);
+
+        when(productRepository.findByIdLessThanOrderByIdDesc(eq(10L), any()))
+                .thenReturn(Arrays.asList(third, second, first));
+        when(productRepository.existsAfter(9L)).thenReturn(true);
+
+        ProductPageDto page = productService.getProductsPage(null, 10L, 2);
+
+        assertEquals(7L, page.getItems().get(0).getId());
+        assertEquals(9L, page.getItems().get(1).getId());
+        assertEquals(9L, page.getNextCursor());
+        assertEquals(7L, page.getPrevCursor());
+    }
+
+    @Test
+    public void testGetProductsPageLastPageHasNoCursor() {
+        ProductView only = view(5L);
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(Arrays.asList(only));
+
+        ProductPageDto page = productService.getProductsPage(null, null, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testStockNotificationIsSentOnlyOnTransitions() throws JsonProcessingException {
+        Product product = new Product();
+        product.setId(1L);
+        product.setNameRu("Ноутбук");
+        product.setStockQuantity(3);
+        when(objectMapper.writeValueAsString(any(LowStockEventDto.class))).thenReturn("{}");
+
+        productService.checkStockAndSendNotification(product);
+        productService.checkStockAndSendNotification(product);
+        product.setStockQuantity(50);
+        productService.checkStockAndSendNotification(product);
+
+        ArgumentCaptor<LowStockEventDto> events = ArgumentCaptor.forClass(LowStockEventDto.class);
+        verify(objectMapper, times(2)).writeValueAsString(events.capture());
+        assertEquals(LowStockEventDto.Type.LOW_STOCK, events.getAllValues().get(0).getEventType());
+        assertEquals(LowStockEventDto.Type.STOCK_RESTORED, events.getAllValues().get(1).getEventType());
+        verify(outboxService, times(2)).enqueue("low-stock-notifications", "1", "{}");
+        assertFalse(product.isLowStockNotified());
+    }
+
+    @Test
+    public void testStockTransitionIsDecidedByCurrentRow() throws JsonProcessingException {
+        StockLevel marked = new StockLevel() {
+            public int getStockQuantity() { return 3; }
+            public int getLowStockThreshold() { return 25; }
+            public boolean isLowStockNotified() { return true; }
+        };
+        when(productRepository.markLowStockTransition(1L, 10)).thenReturn(Optional.of(marked));
+        when(productRepository.markLowStockTransition(2L, 10)).thenReturn(Optional.empty());
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(view(1L)));
+        when(objectMapper.writeValueAsString(any(LowStockEventDto.class))).thenReturn("{}");
+
+        productService.publishStockTransition(1L);
+        productService.publishStockTransition(2L);
+
+        ArgumentCaptor<LowStockEventDto> event = ArgumentCaptor.forClass(LowStockEventDto.class);
+        verify(objectMapper).writeValueAsString(event.capture());
+        assertEquals(LowStockEventDto.Type.LOW_STOCK, event.getValue().getEventType());
+        assertEquals(25, event.getValue().getThreshold());
+        verify(outboxService, times(1)).enqueue("low-stock-notifications", "1", "{}");
+        verify(productRepository, never()).findViewById(2L);
+    }
+
+    @Test
+    public void testEffectiveThresholdPrefersProductThenCategory() {
+        Category category = new Category(1L, "Electronics", "All kinds of electronics");
+        Product product = new Product();
+        product.setCategory(category);
+
+        assertEquals(10, productService.effectiveLowStockThreshold(product));
+        category.setLowStockThreshold(25);
+        assertEquals(25, productService.effectiveLowStockThreshold(product));
+        product.setLowStockThreshold(3);
+        assertEquals(3, productService.effectiveLowStockThreshold(product));
+    }
+
+    @Test
+    public void testSearchProductsDetectsNextPageWithoutCount() {
+        ProductView first = view(3L);
+        ProductView second = view(8L);
+        ProductView third = view(1L);
+
+        when(productRepository.search("ноутбук", 3, 2L)).thenReturn(Arrays.asList(first, second, third));
+
+        ProductSearchPageDto page = productService.searchProducts("ноутбук", 1, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(3L, page.getItems().get(0).getId());
+        assertTrue(page.isHasNext());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package com.yourcompany.producttracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.producttracker.config.KafkaConfig;
+import com.yourcompany.producttracker.dto.LowStockEventDto;
+import com.yourcompany.producttracker.dto.ProductRequestDto;
+import com.yourcompany.producttracker.dto.ProductResponseDto;
+import com.yourcompany.producttracker.dto.StockAdjustmentDto;
+import com.yourcompany.producttracker.dto.StockAdjustmentResultDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Конкурентные записи продукта на настоящем PostgreSQL (атомарные UPDATE ... RETURNING в H2 недоступны):
+ * изменения, сделанные в обход сущности, не должны теряться, переходы через порог — пропускаться,
+ * а события product-changes одного продукта должны идти в outbox в порядке фиксации.
+ * Каждый шаг фиксируется отдельно, поэтому тестовая транзакция отключена. Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductService.class, NotificationService.class, StockService.class, OutboxService.class,
+        ProductWriteConcurrencyTest.Observability.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class ProductWriteConcurrencyTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @SpyBean
+    private ProductService productService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @SpyBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private ProductNameIndex productNameIndex;
+
+    @MockBean
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @TestConfiguration
+    static class Observability {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Tracer tracer() {
+            return Tracer.NOOP;
+        }
+
+        @Bean
+        Propagator propagator() {
+            return Propagator.NOOP;
+        }
+    }
+
+    @Test
+    public void testStockAdjustmentBetweenSweepReadAndFlushIsNotOverwritten() {
+        // Остаток 5 ниже порога 10, но уведомления ещё не было: сверка его найдёт
+        long id = insertProduct(5, LocalDate.now().plusDays(3));
+        AtomicBoolean adjusted = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (adjusted.compareAndSet(false, true)) {
+                // Сверка уже прочитала кандидатов; пополнение фиксируется из другого потока до её записи
+                CompletableFuture.runAsync(() -> stockService.adjustStock(id, 100)).join();
+            }
+            return invocation.callRealMethod();
+        }).when(productService).publishStockTransition(anyLong());
+
+        notificationService.checkLowStockAndNotify();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT stock_quantity, low_stock_notified, expiry_alerted_for FROM products WHERE id = ?", id);
+        assertEquals(105, row.get("stock_quantity"));
+        assertEquals(false, row.get("low_stock_notified"));
+        assertEquals(Date.valueOf(LocalDate.now().plusDays(3)), row.get("expiry_alerted_for"));
+        // Остаток восстановлен раньше, чем сверка отметила переход: уведомлять не о чем
+        assertEquals(List.of(), stockEvents());
+    }
+
+    @Test
+    public void testRepeatedProductInOneBatchPublishesBothTransitions() {
+        long id = insertProduct(15, null);
+
+        stockService.adjustStock(List.of(new StockAdjustmentDto(id, -10), new StockAdjustmentDto(id, 10)));
+
+        assertEquals(List.of(LowStockEventDto.Type.LOW_STOCK, LowStockEventDto.Type.STOCK_RESTORED), stockEvents());
+        assertFalse(jdbcTemplate.queryForObject("SELECT low_stock_notified FROM products WHERE id = ?",
+                Boolean.class, id));
+        assertEquals(15, jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, id));
+    }
+
+    @Test
+    public void testOverflowingAdjustmentIsRejectedWithoutFailingTheBatch() {
+        long id = insertProduct(Integer.MAX_VALUE - 5, null);
+        long other = insertProduct(20, null);
+
+        List<StockAdjustmentResultDto> results = stockService.adjustStock(List.of(
+                new StockAdjustmentDto(id, 10), new StockAdjustmentDto(other, 5)));
+
+        assertEquals(StockAdjustmentResultDto.Status.STOCK_LIMIT_EXCEEDED, results.get(0).getStatus());
+        assertEquals(StockAdjustmentResultDto.Status.APPLIED, results.get(1).getStatus());
+        assertEquals(Integer.MAX_VALUE - 5, jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, id));
+        assertEquals(25, jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, other));
+    }
+
+    @Test
+    public void testStockAdjustmentDuringProductUpdateIsPublishedAfterIt() throws Exception {
+        long id = insertProduct(50, null);
+        ProductRequestDto update = new ProductRequestDto();
+        update.setNameEn("Milk 3.2%");
+        update.setNameRu("Молоко 3,2%");
+        update.setStockQuantity(40);
+        AtomicReference<CompletableFuture<Void>> adjustment = new AtomicReference<>();
+        // Заглушка ставится на сам spy: прокси OutboxService требует транзакцию (MANDATORY)
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            if (KafkaConfig.PRODUCT_CHANGES_TOPIC.equals(invocation.getArgument(0)) && adjustment.get() == null) {
+                // PUT уже записал событие, но ещё не зафиксирован: списание должно дождаться его фиксации
+                adjustment.set(CompletableFuture.runAsync(() -> stockService.adjustStock(id, -5)));
+                assertThrows(TimeoutException.class, () -> adjustment.get().get(1, TimeUnit.SECONDS));
+            }
+            return null;
+        }).when(AopTestUtils.<OutboxService>getUltimateTargetObject(outboxService))
+                .enqueue(anyString(), anyString(), any());
+
+        productService.updateProduct(id, update);
+        adjustment.get().get(10, TimeUnit.SECONDS);
+
+        assertEquals(35, jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                Integer.class, id));
+        // Последнее по id событие — то, что останется в компактируемом топике, — совпадает с БД
+        List<String> payloads = jdbcTemplate.queryForList("SELECT payload FROM outbox_events "
+                + "WHERE topic = ? AND message_key = ? ORDER BY id", String.class,
+                KafkaConfig.PRODUCT_CHANGES_TOPIC, String.valueOf(id));
+        assertEquals(2, payloads.size());
+        assertEquals(40, objectMapper.readValue(payloads.get(0), ProductResponseDto.class).getStockQuantity());
+        assertEquals(35, objectMapper.readValue(payloads.get(1), ProductResponseDto.class).getStockQuantity());
+    }
+
+    private long insertProduct(int stockQuantity, LocalDate expiryAlertedFor) {
+        return jdbcTemplate.queryForObject("INSERT INTO products (name_en, name_ru, stock_quantity, expiry_date, "
+                        + "expiry_alerted_for) VALUES ('Milk', 'Молоко', ?, ?, ?) RETURNING id",
+                Long.class, stockQuantity, expiryAlertedFor, expiryAlertedFor);
+    }
+
+    private List<LowStockEventDto.Type> stockEvents() {
+        return mockingDetails(objectMapper).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("writeValueAsString"))
+                .map(invocation -> invocation.getArgument(0))
+                .filter(LowStockEventDto.class::isInstance)
+                .map(event -> ((LowStockEventDto) event).getEventType())
+                .collect(Collectors.toList());
+    }
+}
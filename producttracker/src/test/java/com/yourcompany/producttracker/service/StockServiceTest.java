@@ -0,0 +1,143 @@
+package com.yourcompany.producttracker.service;
+
+import com.yourcompany.producttracker.dto.StockAdjustmentDto;
+import com.yourcompany.producttracker.dto.StockAdjustmentResultDto;
+import com.yourcompany.producttracker.repository.ProductRepository;
+import com.yourcompany.producttracker.repository.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMapCache productsCache = new ConcurrentMapCache("products");
+
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(cacheManager.getCache("products")).thenReturn(productsCache);
+        lenient().when(productService.getDefaultLowStockThreshold()).thenReturn(10);
+        stockService = new StockService(productRepository, productService, cacheManager, transactionManager);
+    }
+
+    private Optional<StockLevel> level(int stockQuantity, int threshold, boolean notified) {
+        return Optional.of(new StockLevel() {
+            public int getStockQuantity() { return stockQuantity; }
+            public int getLowStockThreshold() { return threshold; }
+            public boolean isLowStockNotified() { return notified; }
+        });
+    }
+
+    @Test
+    public void testAdjustStockNotifiesOnlyWhenThresholdIsCrossed() {
+        productsCache.put(1L, "stale");
+        when(productRepository.adjustStockQuantity(1L, -5, 10)).thenReturn(level(8, 10, false));
+
+        StockAdjustmentResultDto result = stockService.adjustStock(1L, -5);
+
+        assertEquals(StockAdjustmentResultDto.Status.APPLIED, result.getStatus());
+        assertEquals(8, result.getStockQuantity());
+        assertNull(productsCache.get(1L));
+        verify(productService).publishStockTransition(1L);
+        verify(productService).publishChanges(List.of(1L));
+    }
+
+    @Test
+    public void testAdjustStockAlreadyLowDoesNotNotifyAgain() {
+        when(productRepository.adjustStockQuantity(1L, -1, 10)).thenReturn(level(4, 10, true));
+
+        stockService.adjustStock(1L, -1);
+
+        verify(productService, never()).publishStockTransition(any());
+    }
+
+    @Test
+    public void testAdjustStockUsesThresholdReturnedByDatabase() {
+        // Порог категории 50: остаток 30 уже низкий, хотя порог по умолчанию 10
+        when(productRepository.adjustStockQuantity(1L, -20, 10)).thenReturn(level(30, 50, false));
+
+        stockService.adjustStock(1L, -20);
+
+        verify(productService).publishStockTransition(1L);
+    }
+
+    @Test
+    public void testAdjustStockReportsInsufficientStockAndNotFound() {
+        when(productRepository.adjustStockQuantity(1L, -100, 10)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.adjustStockQuantity(2L, 1, 10)).thenReturn(Optional.empty());
+        when(productRepository.existsById(2L)).thenReturn(false);
+
+        List<StockAdjustmentResultDto> results = stockService.adjustStock(List.of(
+                new StockAdjustmentDto(2L, 1),
+                new StockAdjustmentDto(1L, -100)));
+
+        assertEquals(StockAdjustmentResultDto.Status.NOT_FOUND, results.get(0).getStatus());
+        assertEquals(StockAdjustmentResultDto.Status.INSUFFICIENT_STOCK, results.get(1).getStatus());
+        verify(productService).publishChanges(List.of());
+    }
+
+    @Test
+    public void testAdjustStockReportsOverflowSeparatelyFromInsufficientStock() {
+        when(productRepository.adjustStockQuantity(1L, Integer.MAX_VALUE, 10)).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.adjustStockQuantity(2L, -3, 10)).thenReturn(level(7, 10, false));
+
+        List<StockAdjustmentResultDto> results = stockService.adjustStock(List.of(
+                new StockAdjustmentDto(1L, Integer.MAX_VALUE),
+                new StockAdjustmentDto(2L, -3)));
+
+        assertEquals(StockAdjustmentResultDto.Status.STOCK_LIMIT_EXCEEDED, results.get(0).getStatus());
+        assertEquals(StockAdjustmentResultDto.Status.APPLIED, results.get(1).getStatus());
+        verify(productService).publishChanges(List.of(2L));
+    }
+
+    @Test
+    public void testBatchIsAppliedInProductIdOrder() {
+        when(productRepository.adjustStockQuantity(any(), any(Integer.class), any(Integer.class))).thenReturn(level(100, 10, false));
+
+        List<StockAdjustmentResultDto> results = stockService.adjustStock(List.of(
+                new StockAdjustmentDto(3L, 1),
+                new StockAdjustmentDto(1L, 1),
+                new StockAdjustmentDto(2L, 1)));
+
+        InOrder order = inOrder(productRepository);
+        order.verify(productRepository).adjustStockQuantity(1L, 1, 10);
+        order.verify(productRepository).adjustStockQuantity(2L, 1, 10);
+        order.verify(productRepository).adjustStockQuantity(3L, 1, 10);
+        assertEquals(3L, results.get(0).getProductId());
+        verify(productService).publishChanges(List.of(1L, 2L, 3L));
+    }
+}